@@ -0,0 +1,73 @@
+package com.example.gitapi.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.eclipse.jgit.storage.file.WindowCacheStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Installs the JGit storage settings at startup and exposes window cache gauges.
+ */
+@Configuration
+@EnableConfigurationProperties(JGitStorageProperties.class)
+public class JGitStorageConfiguration {
+
+    private static final Logger log = LoggerFactory.getLogger(JGitStorageConfiguration.class);
+
+    /**
+     * Build the window cache configuration from the given properties.
+     *
+     * @param properties the storage properties
+     * @return the JGit configuration, not yet installed
+     */
+    public static WindowCacheConfig toWindowCacheConfig(JGitStorageProperties properties) {
+        WindowCacheConfig config = new WindowCacheConfig();
+        config.setPackedGitLimit(properties.getPackedGitLimit().toBytes());
+        config.setPackedGitWindowSize(Math.toIntExact(properties.getPackedGitWindowSize().toBytes()));
+        config.setPackedGitMMAP(properties.isPackedGitMmap());
+        config.setPackedGitOpenFiles(properties.getPackedGitOpenFiles());
+        config.setDeltaBaseCacheLimit(Math.toIntExact(properties.getDeltaBaseCacheLimit().toBytes()));
+        config.setStreamFileThreshold(Math.toIntExact(properties.getStreamFileThreshold().toBytes()));
+        return config;
+    }
+
+    /**
+     * Install the window cache configuration. This replaces JGit's process-wide cache, so it runs
+     * while the context is created, before any repository is opened.
+     */
+    @Bean
+    public WindowCacheConfig windowCacheConfig(JGitStorageProperties properties) {
+        WindowCacheConfig config = toWindowCacheConfig(properties);
+        config.install();
+        log.info("JGit window cache: limit={}, window={}, mmap={}, openFiles={}, deltaBaseCache={}, streamThreshold={}",
+                properties.getPackedGitLimit(), properties.getPackedGitWindowSize(), properties.isPackedGitMmap(),
+                properties.getPackedGitOpenFiles(), properties.getDeltaBaseCacheLimit(),
+                properties.getStreamFileThreshold());
+        return config;
+    }
+
+    /**
+     * Gauges over the live window cache. Stats are looked up on every read because installing a
+     * configuration swaps the cache instance.
+     */
+    @Bean
+    public MeterBinder windowCacheMetrics() {
+        return registry -> {
+            Gauge.builder("jgit.window.cache.hit.ratio", () -> WindowCacheStats.getStats().getHitRatio())
+                    .description("Fraction of pack window lookups served from the cache")
+                    .register(registry);
+            Gauge.builder("jgit.window.cache.open.files", () -> WindowCacheStats.getStats().getOpenFileCount())
+                    .description("Pack files currently open")
+                    .register(registry);
+            Gauge.builder("jgit.window.cache.open.bytes", () -> WindowCacheStats.getStats().getOpenByteCount())
+                    .description("Bytes of pack data held in the window cache")
+                    .baseUnit("bytes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.gitapi.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * JGit storage layer settings, bound from {@code git.storage.*}.
+ * <p>
+ * Defaults match JGit's own {@link org.eclipse.jgit.storage.file.WindowCacheConfig} defaults.
+ */
+@ConfigurationProperties(prefix = "git.storage")
+public class JGitStorageProperties {
+
+    /** Total memory the window cache may hold of pack file contents. */
+    private DataSize packedGitLimit = DataSize.ofMegabytes(10);
+
+    /** Size of a single window read from a pack file; must be a power of two. */
+    private DataSize packedGitWindowSize = DataSize.ofKilobytes(8);
+
+    /** Whether to memory-map pack file windows instead of copying them onto the heap. */
+    private boolean packedGitMmap = false;
+
+    /** Maximum number of pack files kept open at once. */
+    private int packedGitOpenFiles = 128;
+
+    /** Memory for caching reconstructed delta bases. */
+    private DataSize deltaBaseCacheLimit = DataSize.ofMegabytes(10);
+
+    /** Objects larger than this are streamed instead of loaded fully into memory. */
+    private DataSize streamFileThreshold = DataSize.ofMegabytes(50);
+
+    public DataSize getPackedGitLimit() {
+        return packedGitLimit;
+    }
+
+    public void setPackedGitLimit(DataSize packedGitLimit) {
+        this.packedGitLimit = packedGitLimit;
+    }
+
+    public DataSize getPackedGitWindowSize() {
+        return packedGitWindowSize;
+    }
+
+    public void setPackedGitWindowSize(DataSize packedGitWindowSize) {
+        this.packedGitWindowSize = packedGitWindowSize;
+    }
+
+    public boolean isPackedGitMmap() {
+        return packedGitMmap;
+    }
+
+    public void setPackedGitMmap(boolean packedGitMmap) {
+        this.packedGitMmap = packedGitMmap;
+    }
+
+    public int getPackedGitOpenFiles() {
+        return packedGitOpenFiles;
+    }
+
+    public void setPackedGitOpenFiles(int packedGitOpenFiles) {
+        this.packedGitOpenFiles = packedGitOpenFiles;
+    }
+
+    public DataSize getDeltaBaseCacheLimit() {
+        return deltaBaseCacheLimit;
+    }
+
+    public void setDeltaBaseCacheLimit(DataSize deltaBaseCacheLimit) {
+        this.deltaBaseCacheLimit = deltaBaseCacheLimit;
+    }
+
+    public DataSize getStreamFileThreshold() {
+        return streamFileThreshold;
+    }
+
+    public void setStreamFileThreshold(DataSize streamFileThreshold) {
+        this.streamFileThreshold = streamFileThreshold;
+    }
+}
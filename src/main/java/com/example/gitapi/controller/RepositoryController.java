@@ -1,12 +1,26 @@
 package com.example.gitapi.controller;
 
+import com.example.gitapi.model.ActivityHistogram;
+import com.example.gitapi.model.AuthorStats;
+import com.example.gitapi.model.BatchRefUpdateRequest;
+import com.example.gitapi.model.BlameInfo;
 import com.example.gitapi.model.BranchInfo;
 import com.example.gitapi.model.CommitInfo;
+import com.example.gitapi.model.CommitSearchResult;
+import com.example.gitapi.model.MergeInfo;
+import com.example.gitapi.model.RefUpdateInfo;
 import com.example.gitapi.model.Repository;
+import com.example.gitapi.model.RepositoryStats;
+import com.example.gitapi.service.BlameService;
 import com.example.gitapi.service.RepositoryService;
+import com.example.gitapi.service.SearchService;
+import com.example.gitapi.service.StatsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -19,9 +33,19 @@ import java.util.Map;
 public class RepositoryController {
 
     private final RepositoryService repositoryService;
+    private final StatsService statsService;
+    private final BlameService blameService;
+    private final SearchService searchService;
+    private final ObjectMapper objectMapper;
 
-    public RepositoryController(RepositoryService repositoryService) {
+    public RepositoryController(RepositoryService repositoryService, StatsService statsService,
+                                BlameService blameService, SearchService searchService,
+                                ObjectMapper objectMapper) {
         this.repositoryService = repositoryService;
+        this.statsService = statsService;
+        this.blameService = blameService;
+        this.searchService = searchService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -175,4 +199,150 @@ public class RepositoryController {
         repositoryService.checkout(name, branchName);
         return ResponseEntity.ok(Map.of("message", "Checked out branch: " + branchName));
     }
+
+    /**
+     * Get commit statistics for a repository.
+     *
+     * @param name the repository name
+     * @return total commits, author count and covered date range
+     */
+    @GetMapping("/{name}/stats")
+    public ResponseEntity<RepositoryStats> getStats(@PathVariable String name) {
+        return ResponseEntity.ok(statsService.getStats(name));
+    }
+
+    /**
+     * List authors by commit count.
+     *
+     * @param name  the repository name
+     * @param limit maximum number of authors to return
+     * @return authors ordered by descending commit count
+     */
+    @GetMapping("/{name}/stats/authors")
+    public ResponseEntity<List<AuthorStats>> getAuthorStats(
+            @PathVariable String name,
+            @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(statsService.getAuthors(name, limit));
+    }
+
+    /**
+     * Get the commit activity histogram for a repository.
+     *
+     * @param name        the repository name
+     * @param granularity bucket size, "day" or "week"
+     * @return commit counts per bucket
+     */
+    @GetMapping("/{name}/stats/activity")
+    public ResponseEntity<ActivityHistogram> getActivity(
+            @PathVariable String name,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return ResponseEntity.ok(statsService.getActivity(name, granularity));
+    }
+
+    /**
+     * Blame a file, returning line attribution grouped into regions.
+     *
+     * @param name  the repository name
+     * @param path  the file path within the repository
+     * @param rev   the revision to blame at
+     * @param start the first line to return (1-based)
+     * @param end   the last line to return (inclusive), defaults to the end of the file
+     * @return the blame regions; {@code complete} is false if the time budget ran out first
+     */
+    @GetMapping("/{name}/blame")
+    public ResponseEntity<BlameInfo> blame(
+            @PathVariable String name,
+            @RequestParam String path,
+            @RequestParam(defaultValue = "HEAD") String rev,
+            @RequestParam(defaultValue = "1") int start,
+            @RequestParam(required = false) Integer end) {
+        return ResponseEntity.ok(blameService.blame(name, path, rev, start, end));
+    }
+
+    /**
+     * Blame a file, streaming each region as newline-delimited JSON as soon as it is attributed.
+     *
+     * @param name  the repository name
+     * @param path  the file path within the repository
+     * @param rev   the revision to blame at
+     * @param start the first line to return (1-based)
+     * @param end   the last line to return (inclusive), defaults to the end of the file
+     * @return one region per line of output; regions without {@code commitId} were not attributed in time
+     */
+    @GetMapping("/{name}/blame/stream")
+    public ResponseEntity<StreamingResponseBody> streamBlame(
+            @PathVariable String name,
+            @RequestParam String path,
+            @RequestParam(defaultValue = "HEAD") String rev,
+            @RequestParam(defaultValue = "1") int start,
+            @RequestParam(required = false) Integer end) {
+        BlameService.BlameStream stream = blameService.streamBlame(name, path, rev, start, end);
+        StreamingResponseBody body = out -> stream.writeTo(region -> {
+            out.write(objectMapper.writeValueAsBytes(region));
+            out.write('\n');
+            out.flush();
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    /**
+     * Search commit messages and authors.
+     *
+     * @param name the repository name
+     * @param q    the search words, all of which must match
+     * @param page the zero-based page number
+     * @param size the page size
+     * @return ranked matching commits
+     */
+    @GetMapping("/{name}/search/commits")
+    public ResponseEntity<CommitSearchResult> searchCommits(
+            @PathVariable String name,
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(searchService.searchCommits(name, q, page, size));
+    }
+
+    /**
+     * Apply a batch of ref updates atomically.
+     *
+     * @param name    the repository name
+     * @param request the updates, each with its expected old id and new revision
+     * @return the result of each update; 409 if the batch was not applied
+     */
+    @PostMapping("/{name}/refs")
+    public ResponseEntity<List<RefUpdateInfo>> updateRefs(@PathVariable String name,
+                                                          @RequestBody BatchRefUpdateRequest request) {
+        if (request.getUpdates() == null || request.getUpdates().isEmpty()) {
+            throw new IllegalArgumentException("At least one ref update is required");
+        }
+        List<RefUpdateInfo> results = repositoryService.batchUpdateRefs(name, request.getUpdates(), request.isForce());
+        boolean applied = results.stream().allMatch(update -> "OK".equals(update.getStatus()));
+        return ResponseEntity.status(applied ? HttpStatus.OK : HttpStatus.CONFLICT).body(results);
+    }
+
+    /**
+     * Merge a revision into a branch without checking it out.
+     *
+     * @param name    the repository name
+     * @param request the request containing target branch, source revision, mode and merge commit details
+     * @return the merge outcome; 409 if the branch could not be updated
+     */
+    @PostMapping("/{name}/merge")
+    public ResponseEntity<MergeInfo> merge(@PathVariable String name, @RequestBody Map<String, String> request) {
+        String target = request.get("target");
+        String source = request.get("source");
+
+        if (target == null || target.isBlank()) {
+            throw new IllegalArgumentException("Target branch is required");
+        }
+        if (source == null || source.isBlank()) {
+            throw new IllegalArgumentException("Source revision is required");
+        }
+
+        MergeInfo result = repositoryService.merge(name, target, source, request.getOrDefault("mode", "ff"),
+                request.get("message"), request.get("author"), request.get("email"));
+        boolean updated = result.getCommitId() != null;
+        return ResponseEntity.status(updated ? HttpStatus.OK : HttpStatus.CONFLICT).body(result);
+    }
 }
@@ -0,0 +1,11 @@
+package com.example.gitapi.exception;
+
+/**
+ * Exception thrown when an operation is rejected because its concurrency limit is reached.
+ */
+public class OperationLimitExceededException extends RuntimeException {
+
+    public OperationLimitExceededException(String message) {
+        super(message);
+    }
+}
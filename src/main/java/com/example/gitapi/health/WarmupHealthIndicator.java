@@ -0,0 +1,36 @@
+package com.example.gitapi.health;
+
+import com.example.gitapi.model.WarmupStatus;
+import com.example.gitapi.service.WarmupService;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health indicator reporting repository warm-up progress.
+ * <p>
+ * Reports OUT_OF_SERVICE while hot repositories are still being warmed, so that including it in
+ * the readiness group keeps load balancers from routing traffic to a cold instance.
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+
+    private final WarmupService warmupService;
+
+    public WarmupHealthIndicator(WarmupService warmupService) {
+        this.warmupService = warmupService;
+    }
+
+    @Override
+    public Health health() {
+        WarmupStatus status = warmupService.getStatus();
+        Health.Builder builder = status.isReady() ? Health.up() : Health.outOfService();
+        return builder
+                .withDetail("state", status.getState())
+                .withDetail("total", status.getTotal())
+                .withDetail("warmed", status.getWarmed())
+                .withDetail("failed", status.getFailed())
+                .withDetail("elapsedMillis", status.getElapsedMillis())
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.gitapi.model;
+
+import java.time.LocalDate;
+
+/**
+ * Domain model representing commit counts per consecutive day or week.
+ */
+public class ActivityHistogram {
+
+    private String granularity;
+    private LocalDate start;
+    private int[] counts;
+
+    public ActivityHistogram() {
+    }
+
+    public ActivityHistogram(String granularity, LocalDate start, int[] counts) {
+        this.granularity = granularity;
+        this.start = start;
+        this.counts = counts;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public void setGranularity(String granularity) {
+        this.granularity = granularity;
+    }
+
+    public LocalDate getStart() {
+        return start;
+    }
+
+    public void setStart(LocalDate start) {
+        this.start = start;
+    }
+
+    public int[] getCounts() {
+        return counts;
+    }
+
+    public void setCounts(int[] counts) {
+        this.counts = counts;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.gitapi.model;
+
+/**
+ * Domain model representing the commit count of a single author.
+ */
+public class AuthorStats {
+
+    private String name;
+    private String email;
+    private int commits;
+
+    public AuthorStats() {
+    }
+
+    public AuthorStats(String name, String email, int commits) {
+        this.name = name;
+        this.email = email;
+        this.commits = commits;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public void setEmail(String email) {
+        this.email = email;
+    }
+
+    public int getCommits() {
+        return commits;
+    }
+
+    public void setCommits(int commits) {
+        this.commits = commits;
+    }
+}
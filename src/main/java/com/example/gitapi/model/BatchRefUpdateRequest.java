@@ -0,0 +1,36 @@
+package com.example.gitapi.model;
+
+import java.util.List;
+
+/**
+ * Request body for applying several reference updates atomically.
+ */
+public class BatchRefUpdateRequest {
+
+    private boolean force;
+    private List<RefUpdateInfo> updates;
+
+    public BatchRefUpdateRequest() {
+    }
+
+    public BatchRefUpdateRequest(boolean force, List<RefUpdateInfo> updates) {
+        this.force = force;
+        this.updates = updates;
+    }
+
+    public boolean isForce() {
+        return force;
+    }
+
+    public void setForce(boolean force) {
+        this.force = force;
+    }
+
+    public List<RefUpdateInfo> getUpdates() {
+        return updates;
+    }
+
+    public void setUpdates(List<RefUpdateInfo> updates) {
+        this.updates = updates;
+    }
+}
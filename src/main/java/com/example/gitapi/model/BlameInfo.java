@@ -0,0 +1,74 @@
+package com.example.gitapi.model;
+
+import java.util.List;
+
+/**
+ * Domain model representing line attribution for a file at a given revision.
+ */
+public class BlameInfo {
+
+    private String path;
+    private String commitId;
+    private String blobId;
+    private int lineCount;
+    private boolean complete;
+    private List<BlameRegion> regions;
+
+    public BlameInfo() {
+    }
+
+    public BlameInfo(String path, String commitId, String blobId, int lineCount) {
+        this.path = path;
+        this.commitId = commitId;
+        this.blobId = blobId;
+        this.lineCount = lineCount;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public void setPath(String path) {
+        this.path = path;
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public void setCommitId(String commitId) {
+        this.commitId = commitId;
+    }
+
+    public String getBlobId() {
+        return blobId;
+    }
+
+    public void setBlobId(String blobId) {
+        this.blobId = blobId;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    public List<BlameRegion> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(List<BlameRegion> regions) {
+        this.regions = regions;
+    }
+}
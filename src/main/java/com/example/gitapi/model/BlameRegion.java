@@ -0,0 +1,90 @@
+package com.example.gitapi.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Domain model representing consecutive lines of a file attributed to the same commit.
+ */
+public class BlameRegion {
+
+    private int startLine;
+    private int lineCount;
+    private String commitId;
+    private String author;
+    private String authorEmail;
+    private LocalDateTime timestamp;
+    private String sourcePath;
+    private int sourceStartLine;
+
+    public BlameRegion() {
+    }
+
+    public BlameRegion(int startLine, int lineCount) {
+        this.startLine = startLine;
+        this.lineCount = lineCount;
+    }
+
+    public int getStartLine() {
+        return startLine;
+    }
+
+    public void setStartLine(int startLine) {
+        this.startLine = startLine;
+    }
+
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    public void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public void setCommitId(String commitId) {
+        this.commitId = commitId;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public void setAuthor(String author) {
+        this.author = author;
+    }
+
+    public String getAuthorEmail() {
+        return authorEmail;
+    }
+
+    public void setAuthorEmail(String authorEmail) {
+        this.authorEmail = authorEmail;
+    }
+
+    public LocalDateTime getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(LocalDateTime timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    public String getSourcePath() {
+        return sourcePath;
+    }
+
+    public void setSourcePath(String sourcePath) {
+        this.sourcePath = sourcePath;
+    }
+
+    public int getSourceStartLine() {
+        return sourceStartLine;
+    }
+
+    public void setSourceStartLine(int sourceStartLine) {
+        this.sourceStartLine = sourceStartLine;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.gitapi.model;
+
+import java.util.List;
+
+/**
+ * Domain model representing one page of ranked commit search results.
+ */
+public class CommitSearchResult {
+
+    private String query;
+    private int totalHits;
+    private int page;
+    private int size;
+    private List<CommitInfo> commits;
+
+    public CommitSearchResult() {
+    }
+
+    public CommitSearchResult(String query, int totalHits, int page, int size, List<CommitInfo> commits) {
+        this.query = query;
+        this.totalHits = totalHits;
+        this.page = page;
+        this.size = size;
+        this.commits = commits;
+    }
+
+    public String getQuery() {
+        return query;
+    }
+
+    public void setQuery(String query) {
+        this.query = query;
+    }
+
+    public int getTotalHits() {
+        return totalHits;
+    }
+
+    public void setTotalHits(int totalHits) {
+        this.totalHits = totalHits;
+    }
+
+    public int getPage() {
+        return page;
+    }
+
+    public void setPage(int page) {
+        this.page = page;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public void setSize(int size) {
+        this.size = size;
+    }
+
+    public List<CommitInfo> getCommits() {
+        return commits;
+    }
+
+    public void setCommits(List<CommitInfo> commits) {
+        this.commits = commits;
+    }
+}
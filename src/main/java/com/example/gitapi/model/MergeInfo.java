@@ -0,0 +1,65 @@
+package com.example.gitapi.model;
+
+import java.util.List;
+
+/**
+ * Domain model representing the outcome of merging one revision into a branch.
+ */
+public class MergeInfo {
+
+    private String target;
+    private String source;
+    private String status;
+    private String commitId;
+    private List<String> conflicts;
+
+    public MergeInfo() {
+    }
+
+    public MergeInfo(String target, String source, String status, String commitId) {
+        this.target = target;
+        this.source = source;
+        this.status = status;
+        this.commitId = commitId;
+    }
+
+    public String getTarget() {
+        return target;
+    }
+
+    public void setTarget(String target) {
+        this.target = target;
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    public void setSource(String source) {
+        this.source = source;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getCommitId() {
+        return commitId;
+    }
+
+    public void setCommitId(String commitId) {
+        this.commitId = commitId;
+    }
+
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<String> conflicts) {
+        this.conflicts = conflicts;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.gitapi.model;
+
+/**
+ * Domain model representing one reference update in a batch, and its outcome.
+ */
+public class RefUpdateInfo {
+
+    private String ref;
+    private String oldId;
+    private String newId;
+    private String status;
+    private String message;
+
+    public RefUpdateInfo() {
+    }
+
+    public RefUpdateInfo(String ref, String oldId, String newId) {
+        this.ref = ref;
+        this.oldId = oldId;
+        this.newId = newId;
+    }
+
+    public String getRef() {
+        return ref;
+    }
+
+    public void setRef(String ref) {
+        this.ref = ref;
+    }
+
+    public String getOldId() {
+        return oldId;
+    }
+
+    public void setOldId(String oldId) {
+        this.oldId = oldId;
+    }
+
+    public String getNewId() {
+        return newId;
+    }
+
+    public void setNewId(String newId) {
+        this.newId = newId;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.gitapi.model;
+
+import java.time.LocalDate;
+
+/**
+ * Domain model summarising the commit history of a repository.
+ */
+public class RepositoryStats {
+
+    private String name;
+    private long totalCommits;
+    private int authorCount;
+    private LocalDate firstCommitDate;
+    private LocalDate lastCommitDate;
+
+    public RepositoryStats() {
+    }
+
+    public RepositoryStats(String name, long totalCommits, int authorCount) {
+        this.name = name;
+        this.totalCommits = totalCommits;
+        this.authorCount = authorCount;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public long getTotalCommits() {
+        return totalCommits;
+    }
+
+    public void setTotalCommits(long totalCommits) {
+        this.totalCommits = totalCommits;
+    }
+
+    public int getAuthorCount() {
+        return authorCount;
+    }
+
+    public void setAuthorCount(int authorCount) {
+        this.authorCount = authorCount;
+    }
+
+    public LocalDate getFirstCommitDate() {
+        return firstCommitDate;
+    }
+
+    public void setFirstCommitDate(LocalDate firstCommitDate) {
+        this.firstCommitDate = firstCommitDate;
+    }
+
+    public LocalDate getLastCommitDate() {
+        return lastCommitDate;
+    }
+
+    public void setLastCommitDate(LocalDate lastCommitDate) {
+        this.lastCommitDate = lastCommitDate;
+    }
+}
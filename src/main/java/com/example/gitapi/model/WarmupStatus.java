@@ -0,0 +1,74 @@
+package com.example.gitapi.model;
+
+/**
+ * Domain model representing the progress of warming hot repositories after startup.
+ */
+public class WarmupStatus {
+
+    private String state;
+    private int total;
+    private int warmed;
+    private int failed;
+    private long elapsedMillis;
+    private boolean ready;
+
+    public WarmupStatus() {
+    }
+
+    public WarmupStatus(String state, int total, int warmed, int failed, long elapsedMillis, boolean ready) {
+        this.state = state;
+        this.total = total;
+        this.warmed = warmed;
+        this.failed = failed;
+        this.elapsedMillis = elapsedMillis;
+        this.ready = ready;
+    }
+
+    public String getState() {
+        return state;
+    }
+
+    public void setState(String state) {
+        this.state = state;
+    }
+
+    public int getTotal() {
+        return total;
+    }
+
+    public void setTotal(int total) {
+        this.total = total;
+    }
+
+    public int getWarmed() {
+        return warmed;
+    }
+
+    public void setWarmed(int warmed) {
+        this.warmed = warmed;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void setReady(boolean ready) {
+        this.ready = ready;
+    }
+}
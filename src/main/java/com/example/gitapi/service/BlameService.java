@@ -0,0 +1,651 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.exception.GitOperationException;
+import com.example.gitapi.exception.OperationLimitExceededException;
+import com.example.gitapi.model.BlameInfo;
+import com.example.gitapi.model.BlameRegion;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.blame.BlameGenerator;
+import org.eclipse.jgit.blame.BlameResult;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * Service computing line attribution with JGit's blame engine.
+ * <p>
+ * Results are cached per (repository, commit, path); the revision is resolved to a commit first
+ * so symbolic revisions such as {@code HEAD} never serve stale data. Computations run on a small
+ * worker pool and each request only waits for them within its time budget: when it runs out the
+ * lines attributed so far are returned and the computation keeps going in the cache, so the next
+ * request for the same file finds more, or all, of its lines attributed. A semaphore caps how many
+ * computations run at once; requests served from the cache, or by a computation that is already
+ * running, bypass it.
+ * Results are available either as one {@link BlameInfo} or as a stream of regions that are
+ * emitted as soon as their lines are attributed.
+ */
+@Service
+public class BlameService {
+
+    private static final long LOCK_GRACE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private final RepositoryService repositoryService;
+    private final Semaphore permits;
+    private Executor executor;
+    private final long timeBudgetNanos;
+    private final Map<BlameKey, BlameEntry> cache;
+
+    public BlameService(RepositoryService repositoryService,
+                        @Value("${git.blame.max-concurrent:4}") int maxConcurrent,
+                        @Value("${git.blame.time-budget-ms:2000}") long timeBudgetMillis,
+                        @Value("${git.blame.cache-size:256}") int cacheSize) {
+        this.repositoryService = repositoryService;
+        this.permits = new Semaphore(maxConcurrent);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, maxConcurrent), runnable -> {
+            Thread thread = new Thread(runnable, "blame-worker-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<BlameKey, BlameEntry> eldest) {
+                if (size() > cacheSize) {
+                    eldest.getValue().evict();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Replace the worker pool that advances blame computations, e.g. to run them on demand in tests.
+     */
+    void setExecutor(Executor executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * Blame a file at a revision.
+     *
+     * @param name      the name of the repository
+     * @param path      the repository-relative file path
+     * @param rev       the revision to blame at
+     * @param startLine the first line to return (1-based)
+     * @param endLine   the last line to return (inclusive), or null for the end of the file
+     * @return attribution of the requested lines, grouped into regions
+     */
+    public BlameInfo blame(String name, String path, String rev, int startLine, Integer endLine) {
+        checkRange(startLine, endLine);
+        long deadline = System.nanoTime() + timeBudgetNanos;
+        BlameKey key = resolve(name, path, rev);
+        Watch watch = watch(key, startLine, endLine, deadline);
+        watch.entry().await(watch.range(), deadline);
+        return watch.entry().render(watch.range(), deadline);
+    }
+
+    /**
+     * Blame a file at a revision, emitting regions as their lines are attributed.
+     * <p>
+     * The revision, path and line range are checked before this method returns; the computation
+     * itself runs when the returned stream is written. Regions already attributed by an earlier
+     * request are emitted first, then each newly attributed region, in the order the blame engine
+     * reaches them rather than in line order. If the time budget runs out, the remaining lines are
+     * emitted as regions without a commit. Regions are written without holding any lock, so a slow
+     * client only delays itself.
+     *
+     * @param name      the name of the repository
+     * @param path      the repository-relative file path
+     * @param rev       the revision to blame at
+     * @param startLine the first line to return (1-based)
+     * @param endLine   the last line to return (inclusive), or null for the end of the file
+     * @return the stream of regions, to be written once
+     */
+    public BlameStream streamBlame(String name, String path, String rev, int startLine, Integer endLine) {
+        checkRange(startLine, endLine);
+        BlameKey key = resolve(name, path, rev);
+        return consumer -> {
+            long deadline = System.nanoTime() + timeBudgetNanos;
+            Watch watch = watch(key, startLine, endLine, deadline);
+            List<BlameRegion> regions = watch.entry().attributed(watch.range(), deadline);
+            boolean more = true;
+            while (true) {
+                for (BlameRegion region : regions) {
+                    consumer.accept(region);
+                }
+                if (!more) {
+                    return;
+                }
+                regions = new ArrayList<>();
+                more = watch.entry().next(watch.range(), deadline, regions);
+            }
+        };
+    }
+
+    /**
+     * Receives blame regions as they are attributed.
+     */
+    @FunctionalInterface
+    public interface RegionConsumer {
+        void accept(BlameRegion region) throws IOException;
+    }
+
+    /**
+     * A prepared blame computation that emits its regions when written.
+     */
+    @FunctionalInterface
+    public interface BlameStream {
+        void writeTo(RegionConsumer consumer) throws IOException;
+    }
+
+    private static void checkRange(int startLine, Integer endLine) {
+        if (startLine < 1 || (endLine != null && endLine < startLine)) {
+            throw new IllegalArgumentException("Invalid line range: " + startLine + "-" + endLine);
+        }
+    }
+
+    /**
+     * Find or create the cache entry for a file and register the requested lines with it,
+     * starting a worker if they still need to be computed.
+     */
+    private Watch watch(BlameKey key, int startLine, Integer endLine, long deadline) {
+        while (true) {
+            BlameEntry entry;
+            synchronized (cache) {
+                entry = cache.get(key);
+            }
+            if (entry == null) {
+                entry = open(key);
+                synchronized (cache) {
+                    BlameEntry existing = cache.putIfAbsent(key, entry);
+                    if (existing != null) {
+                        entry.evict();
+                        entry = existing;
+                    }
+                }
+            }
+            Range range = entry.watch(startLine, endLine, deadline, this::startWorker);
+            if (range != null) {
+                return new Watch(entry, range);
+            }
+            // Evicted before the requested lines were attributed; start over with a fresh entry
+            synchronized (cache) {
+                cache.remove(key, entry);
+            }
+        }
+    }
+
+    private void startWorker(BlameEntry entry) {
+        if (!permits.tryAcquire()) {
+            throw new OperationLimitExceededException("Too many concurrent blame requests, retry later");
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    entry.advance();
+                } finally {
+                    permits.release();
+                    if (entry.isFailed()) {
+                        synchronized (cache) {
+                            cache.remove(entry.key, entry);
+                        }
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            permits.release();
+            throw new OperationLimitExceededException("Blame service is shutting down, retry later");
+        }
+    }
+
+    private BlameKey resolve(String name, String path, String rev) {
+        try (Git git = repositoryService.openGit(name)) {
+            Repository repository = git.getRepository();
+            ObjectId commitId;
+            try {
+                commitId = repository.resolve(rev + "^{commit}");
+            } catch (IncorrectObjectTypeException e) {
+                throw new IllegalArgumentException("Revision is not a commit: " + rev);
+            }
+            if (commitId == null) {
+                throw new IllegalArgumentException("Unknown revision: " + rev);
+            }
+            try (RevWalk walk = new RevWalk(repository)) {
+                RevCommit commit = walk.parseCommit(commitId);
+                try (TreeWalk treeWalk = TreeWalk.forPath(repository, path, commit.getTree())) {
+                    if (treeWalk == null || treeWalk.getFileMode(0).getObjectType() != Constants.OBJ_BLOB) {
+                        throw new IllegalArgumentException("File not found at " + rev + ": " + path);
+                    }
+                    return new BlameKey(name, commit.copy(), path, treeWalk.getObjectId(0));
+                }
+            }
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to resolve " + path + " at " + rev + " in repository: " + name, e);
+        }
+    }
+
+    private BlameEntry open(BlameKey key) {
+        Git git = null;
+        BlameGenerator generator = null;
+        try {
+            git = repositoryService.openGit(key.repository());
+            generator = new BlameGenerator(git.getRepository(), key.path());
+            generator.push(null, key.commitId());
+            BlameResult result = BlameResult.create(generator);
+            if (result != null) {
+                return new BlameEntry(key, git, generator, result);
+            }
+        } catch (IOException e) {
+            closeQuietly(generator, git);
+            throw new GitOperationException("Failed to blame " + key.path() + " in repository: " + key.repository(), e);
+        }
+        closeQuietly(generator, git);
+        throw new GitOperationException("No blame data for " + key.path() + " in repository: " + key.repository());
+    }
+
+    private static void closeQuietly(BlameGenerator generator, Git git) {
+        if (generator != null) {
+            generator.close();
+        }
+        if (git != null) {
+            git.close();
+        }
+    }
+
+    /**
+     * Cache key. The blob id is implied by commit and path and is kept for the response.
+     */
+    private record BlameKey(String repository, ObjectId commitId, String path, ObjectId blobId) {
+    }
+
+    private record Watch(BlameEntry entry, Range range) {
+    }
+
+    /**
+     * Lines {@code [first, last)} wanted by one request. {@code remaining} counts the lines not yet
+     * attributed and {@code seen} the steps a stream has emitted; both are guarded by the entry lock.
+     */
+    private static final class Range {
+
+        private final int first;
+        private final int last;
+        private int remaining;
+        private int seen;
+
+        Range(int first, int last) {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
+    /**
+     * Lines attributed by one step of the blame generator: result lines
+     * {@code [resultStart, resultStart + length)} come from consecutive lines of one commit.
+     */
+    private record Step(int resultStart, int length, ObjectId commitId, String author, String authorEmail,
+                        LocalDateTime timestamp, String sourcePath, int sourceStart) {
+
+        BlameRegion toRegion(int first, int last) {
+            BlameRegion region = new BlameRegion(first + 1, last - first);
+            region.setCommitId(commitId.getName());
+            region.setAuthor(author);
+            region.setAuthorEmail(authorEmail);
+            region.setTimestamp(timestamp);
+            region.setSourcePath(sourcePath);
+            region.setSourceStartLine(sourceStart + first - resultStart + 1);
+            return region;
+        }
+    }
+
+    /**
+     * A possibly unfinished blame computation.
+     * <p>
+     * The generator is only ever advanced by one worker thread, which copies each step into
+     * {@code lines} under the lock. Requests read that copy, never the generator, so they can
+     * render or stream at any time and give up when their budget runs out while the worker keeps
+     * going until every registered line range is attributed. The lock only guards this bookkeeping
+     * and is never held while the generator runs or a response is written.
+     */
+    private static final class BlameEntry {
+
+        private final BlameKey key;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition progress = lock.newCondition();
+        private final BlameGenerator generator;
+        private final BlameResult result;
+        private final int lineCount;
+        private final Step[] lines;
+        private final List<Step> steps = new ArrayList<>();
+        private final List<Range> pending = new ArrayList<>();
+        private int attributedLines;
+        private Git git;
+        private boolean running;
+        private boolean complete;
+        private boolean evicted;
+        private volatile Exception failure;
+
+        BlameEntry(BlameKey key, Git git, BlameGenerator generator, BlameResult result) {
+            this.key = key;
+            this.git = git;
+            this.generator = generator;
+            this.result = result;
+            this.lineCount = result.getResultContents().size();
+            this.lines = new Step[lineCount];
+        }
+
+        boolean isFailed() {
+            return failure != null;
+        }
+
+        /**
+         * Register the requested lines, starting a worker if some are not attributed yet.
+         *
+         * @return the registered range, or null if the entry was evicted before it could serve it
+         */
+        Range watch(int startLine, Integer endLine, long deadline, Consumer<BlameEntry> starter) {
+            lock(deadline);
+            try {
+                checkFailure();
+                Range range = new Range(Math.min(startLine - 1, lineCount),
+                        endLine == null ? lineCount : Math.min(endLine, lineCount));
+                for (int i = range.first; i < range.last; i++) {
+                    if (lines[i] == null) {
+                        range.remaining++;
+                    }
+                }
+                if (range.remaining == 0 || complete) {
+                    return range;
+                }
+                if (evicted) {
+                    return null;
+                }
+                if (!running) {
+                    starter.accept(this);
+                    running = true;
+                }
+                pending.add(range);
+                return range;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Wait until the range is attributed, the worker stops or the deadline passes.
+         */
+        void await(Range range, long deadline) {
+            lock(deadline);
+            try {
+                awaitProgress(range, deadline, Integer.MAX_VALUE);
+                checkFailure();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        BlameInfo render(Range range, long deadline) {
+            lock(deadline);
+            try {
+                return render(range);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Get the regions of the range attributed so far, and mark them as emitted for {@link #next}.
+         */
+        List<BlameRegion> attributed(Range range, long deadline) {
+            lock(deadline);
+            try {
+                range.seen = steps.size();
+                List<BlameRegion> regions = new ArrayList<>();
+                for (BlameRegion region : render(range).getRegions()) {
+                    if (region.getCommitId() != null) {
+                        regions.add(region);
+                    }
+                }
+                return regions;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Wait for new steps and add the regions they attribute within the range. Once nothing
+         * more will arrive before the deadline, the lines still unattributed are added too.
+         *
+         * @return true if more regions may follow
+         */
+        boolean next(Range range, long deadline, List<BlameRegion> regions) {
+            lock(deadline);
+            try {
+                awaitProgress(range, deadline, range.seen);
+                checkFailure();
+                for (; range.seen < steps.size(); range.seen++) {
+                    Step step = steps.get(range.seen);
+                    int first = Math.max(step.resultStart(), range.first);
+                    int last = Math.min(step.resultStart() + step.length(), range.last);
+                    if (first < last) {
+                        regions.add(step.toRegion(first, last));
+                    }
+                }
+                if (range.remaining > 0 && running && System.nanoTime() < deadline) {
+                    return true;
+                }
+                for (BlameRegion region : render(range).getRegions()) {
+                    if (region.getCommitId() == null) {
+                        regions.add(region);
+                    }
+                }
+                return false;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void awaitProgress(Range range, long deadline, int seenSteps) {
+            try {
+                while (range.remaining > 0 && running && steps.size() <= seenSteps) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0) {
+                        return;
+                    }
+                    progress.awaitNanos(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Run the generator until every registered range is attributed, the file is complete, or
+         * the entry is evicted. Called on a worker thread.
+         */
+        void advance() {
+            try {
+                while (true) {
+                    lock.lock();
+                    try {
+                        if (evicted || pending.isEmpty()) {
+                            running = false;
+                            if (evicted) {
+                                closeGenerator();
+                            }
+                            progress.signalAll();
+                            return;
+                        }
+                    } finally {
+                        lock.unlock();
+                    }
+
+                    int start = result.computeNext();
+                    if (start >= 0) {
+                        PersonIdent author = result.getSourceAuthor(start);
+                        RevCommit commit = result.getSourceCommit(start);
+                        record(new Step(start, result.lastLength(), commit.copy(), author.getName(),
+                                author.getEmailAddress(),
+                                LocalDateTime.ofInstant(Instant.ofEpochSecond(commit.getCommitTime()), ZoneId.systemDefault()),
+                                result.getSourcePath(start), result.getSourceLine(start)));
+                    }
+                    if (start < 0 || attributedLines == lineCount) {
+                        if (start >= 0) {
+                            // Every line is attributed; drain the generator so it releases its walk
+                            result.computeAll();
+                        }
+                        finish();
+                        return;
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                lock.lock();
+                try {
+                    failure = e;
+                    evicted = true;
+                    running = false;
+                    closeGenerator();
+                    progress.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+
+        private void record(Step step) {
+            lock.lock();
+            try {
+                steps.add(step);
+                int end = Math.min(step.resultStart() + step.length(), lineCount);
+                for (int i = step.resultStart(); i < end; i++) {
+                    if (lines[i] != null) {
+                        continue;
+                    }
+                    lines[i] = step;
+                    attributedLines++;
+                    for (Range range : pending) {
+                        if (i >= range.first && i < range.last) {
+                            range.remaining--;
+                        }
+                    }
+                }
+                pending.removeIf(range -> range.remaining == 0);
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void finish() {
+            lock.lock();
+            try {
+                complete = true;
+                running = false;
+                pending.clear();
+                result.discardResultContents();
+                closeGenerator();
+                progress.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Mark the entry as dropped from the cache and release its repository once no worker is using it.
+         */
+        void evict() {
+            lock.lock();
+            try {
+                evicted = true;
+                if (!running) {
+                    closeGenerator();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private void closeGenerator() {
+            if (git != null) {
+                // The generator holds its own walk and reader until it runs to the end
+                generator.close();
+                git.close();
+                git = null;
+            }
+        }
+
+        private void lock(long deadline) {
+            // The lock is only held for bookkeeping, so a request past its deadline still gets a short wait
+            long timeout = Math.max(deadline - System.nanoTime(), LOCK_GRACE_NANOS);
+            try {
+                if (lock.tryLock(timeout, TimeUnit.NANOSECONDS)) {
+                    return;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new OperationLimitExceededException("Blame of " + key.path() + " is busy, retry later");
+        }
+
+        private void checkFailure() {
+            if (failure != null) {
+                throw new GitOperationException("Failed to blame " + key.path() + " in repository: " + key.repository(), failure);
+            }
+        }
+
+        private BlameInfo render(Range range) {
+            BlameInfo info = new BlameInfo(key.path(), key.commitId().getName(), key.blobId().getName(), lineCount);
+            List<BlameRegion> regions = new ArrayList<>();
+            BlameRegion region = null;
+            Step regionStep = null;
+            int nextSourceLine = -1;
+            boolean attributed = true;
+
+            for (int i = range.first; i < range.last; i++) {
+                Step step = lines[i];
+                int sourceLine = step != null ? step.sourceStart() + i - step.resultStart() : -1;
+                boolean sameCommit = step == null ? regionStep == null
+                        : regionStep != null && step.commitId().equals(regionStep.commitId());
+                if (region != null && sameCommit && (step == null || sourceLine == nextSourceLine)) {
+                    region.setLineCount(region.getLineCount() + 1);
+                } else {
+                    region = step != null ? step.toRegion(i, i + 1) : new BlameRegion(i + 1, 1);
+                    regions.add(region);
+                    regionStep = step;
+                }
+                nextSourceLine = sourceLine + 1;
+                attributed &= step != null;
+            }
+
+            info.setRegions(regions);
+            info.setComplete(attributed);
+            return info;
+        }
+    }
+}
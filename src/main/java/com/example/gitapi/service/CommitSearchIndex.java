@@ -0,0 +1,560 @@
+package com.example.gitapi.service;
+
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * On-disk inverted index over the messages and authors of one repository's commits.
+ * <p>
+ * Every indexed commit gets a sequential doc id; {@code docs.bin} holds its object id and commit
+ * time in a fixed-width record. Terms are stored in immutable {@link SearchSegment} files. Each
+ * update writes the new commits as a fresh segment; {@link #mergeSegments} later merges adjacent
+ * segments of similar size in the background, which keeps the segment count logarithmic in the
+ * number of commits. The {@code manifest} file names the live segments, the doc count and the
+ * branch tips the index covers, and is replaced atomically, so a crash mid-update leaves the
+ * previous state intact; an index that cannot be read at all is discarded and rebuilt. Terms cannot
+ * be removed from a segment, so when a branch is deleted or force-moved past indexed commits the
+ * index is rebuilt from scratch.
+ * <p>
+ * Searches read an immutable snapshot published through a volatile field and never take the
+ * write lock. Updates and the publishing step of a merge hold it; a merge writes its new segment
+ * without it.
+ */
+class CommitSearchIndex {
+
+    private static final String MANIFEST = "manifest";
+    private static final String DOCS = "docs.bin";
+    private static final int DOC_RECORD_SIZE = Constants.OBJECT_ID_LENGTH + Integer.BYTES;
+    private static final int MAX_TERM_LENGTH = 64;
+
+    /** Commits buffered in memory before they are written out as a segment during a long walk. */
+    static final int FLUSH_THRESHOLD = 50_000;
+
+    private static final Logger log = LoggerFactory.getLogger(CommitSearchIndex.class);
+
+    private final Path directory;
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final AtomicBoolean mergePending = new AtomicBoolean();
+    private IncrementalHistory history;
+    private int nextSegmentId;
+    private volatile Snapshot snapshot;
+    private volatile boolean built;
+
+    private CommitSearchIndex(Path directory, IncrementalHistory history, int nextSegmentId, Snapshot snapshot,
+                              boolean built) {
+        this.directory = directory;
+        this.history = history;
+        this.nextSegmentId = nextSegmentId;
+        this.snapshot = snapshot;
+        this.built = built;
+    }
+
+    /**
+     * Open the index stored in a directory, creating an empty one if none exists or the stored one
+     * is damaged.
+     *
+     * @param directory the index directory
+     * @return the opened index
+     * @throws IOException if the directory cannot be read or written
+     */
+    static CommitSearchIndex open(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        try {
+            return load(directory);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Discarding unreadable search index {}", directory, e);
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    Files.delete(file);
+                }
+            }
+            return load(directory);
+        }
+    }
+
+    private static CommitSearchIndex load(Path directory) throws IOException {
+        Path manifestFile = directory.resolve(MANIFEST);
+        Properties manifest = new Properties();
+        boolean built = Files.exists(manifestFile);
+        if (built) {
+            try (InputStream in = Files.newInputStream(manifestFile)) {
+                manifest.load(in);
+            }
+        }
+
+        int docCount = Integer.parseInt(manifest.getProperty("docs", "0"));
+        int nextSegmentId = Integer.parseInt(manifest.getProperty("nextSegment", "0"));
+        List<SearchSegment> segments = new ArrayList<>();
+        Set<Path> live = new HashSet<>();
+        live.add(manifestFile);
+        live.add(directory.resolve(DOCS));
+        for (String segment : split(manifest.getProperty("segments", ""))) {
+            Path file = directory.resolve(segment);
+            segments.add(SearchSegment.open(file));
+            live.add(file);
+        }
+        Set<ObjectId> tips = new HashSet<>();
+        for (String tip : split(manifest.getProperty("tips", ""))) {
+            tips.add(ObjectId.fromString(tip));
+        }
+        long docsSize = Files.exists(directory.resolve(DOCS)) ? Files.size(directory.resolve(DOCS)) : 0;
+        if (docCount < 0 || nextSegmentId < 0 || docsSize < (long) docCount * DOC_RECORD_SIZE) {
+            throw new IOException("Search index manifest does not match " + DOCS);
+        }
+
+        // Drop leftovers of an update that never reached its manifest
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                if (!live.contains(file)) {
+                    Files.delete(file);
+                }
+            }
+        }
+        try (FileChannel docs = FileChannel.open(directory.resolve(DOCS),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            docs.truncate((long) docCount * DOC_RECORD_SIZE);
+        }
+
+        return new CommitSearchIndex(directory, new IncrementalHistory(tips), nextSegmentId,
+                new Snapshot(List.copyOf(segments), docCount, mapDocs(directory, docCount)), built);
+    }
+
+    /**
+     * Index commits that became reachable since the last update, or rebuild the index if indexed
+     * commits may no longer be reachable.
+     * <p>
+     * The published snapshot and the remembered branch tips only change once the new manifest is
+     * written; if the update fails, the next one retries the same commits. Waits for a running
+     * update or merge to publish first.
+     *
+     * @param repository the repository to read
+     * @return the number of commits added
+     * @throws IOException if the history cannot be read or the index cannot be written
+     */
+    int update(Repository repository) throws IOException {
+        writeLock.lock();
+        try {
+            return updateLocked(repository);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Like {@link #update}, but give up at once if another update or merge is publishing.
+     *
+     * @param repository the repository to read
+     * @return false if the index was busy and nothing was done
+     * @throws IOException if the history cannot be read or the index cannot be written
+     */
+    boolean tryUpdate(Repository repository) throws IOException {
+        if (!writeLock.tryLock()) {
+            return false;
+        }
+        try {
+            updateLocked(repository);
+            return true;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Whether the index has been written at least once, so that searching it without an update
+     * gives a reasonably current answer.
+     */
+    boolean isBuilt() {
+        return built;
+    }
+
+    private int updateLocked(Repository repository) throws IOException {
+        IncrementalHistory previousHistory = history;
+        try {
+            int added = walkAndPublish(repository);
+            built = true;
+            return added;
+        } catch (IOException | RuntimeException e) {
+            history = previousHistory;
+            throw e;
+        }
+    }
+
+    private int walkAndPublish(Repository repository) throws IOException {
+        Snapshot current = snapshot;
+        boolean rebuild = history.isRewound(repository);
+        if (rebuild) {
+            // Publish an empty index first so a crash during the rebuild starts over from nothing.
+            // docs.bin is replaced rather than overwritten because searches may still map the old one.
+            history = new IncrementalHistory();
+            writeManifest(List.of(), 0);
+            Files.delete(directory.resolve(DOCS));
+            Files.createFile(directory.resolve(DOCS));
+        } else {
+            history = new IncrementalHistory(history.getTips());
+        }
+        List<SearchSegment> segments = rebuild ? new ArrayList<>() : new ArrayList<>(current.segments());
+        Batch batch = new Batch(rebuild ? 0 : current.docCount());
+
+        try (FileChannel docs = FileChannel.open(directory.resolve(DOCS), StandardOpenOption.WRITE)) {
+            docs.position((long) batch.nextDoc * DOC_RECORD_SIZE);
+            int added = history.walk(repository, commit -> {
+                batch.add(commit);
+                if (batch.size() >= FLUSH_THRESHOLD) {
+                    flush(batch, segments, docs);
+                }
+            });
+            if (added == 0 && !rebuild) {
+                return 0;
+            }
+            flush(batch, segments, docs);
+            docs.force(true);
+        }
+
+        writeManifest(segments, batch.nextDoc);
+        for (SearchSegment old : current.segments()) {
+            if (!segments.contains(old)) {
+                Files.deleteIfExists(old.getFile());
+            }
+        }
+        snapshot = new Snapshot(List.copyOf(segments), batch.nextDoc, mapDocs(directory, batch.nextDoc));
+        return rebuild ? batch.nextDoc : batch.nextDoc - current.docCount();
+    }
+
+    private void flush(Batch batch, List<SearchSegment> segments, FileChannel docs) throws IOException {
+        if (batch.size() == 0) {
+            return;
+        }
+        ByteBuffer records = ByteBuffer.wrap(batch.records.toByteArray());
+        while (records.hasRemaining()) {
+            docs.write(records);
+        }
+        Path file = directory.resolve(segmentName(nextSegmentId++));
+        try (SearchSegment.Writer writer = new SearchSegment.Writer(file, batch.docBase, batch.size())) {
+            for (Map.Entry<String, List<int[]>> term : batch.postings.entrySet()) {
+                writer.startTerm(term.getKey());
+                for (int[] posting : term.getValue()) {
+                    writer.add(posting[0], posting[1]);
+                }
+            }
+        }
+        segments.add(SearchSegment.open(file));
+        batch.reset();
+    }
+
+    /**
+     * Whether {@link #mergeSegments} should run, and if so claim it so that it is only scheduled once.
+     *
+     * @return true if the caller must now run {@link #mergeSegments}
+     */
+    boolean claimMerge() {
+        return mergeCandidate(snapshot.segments()) >= 0 && mergePending.compareAndSet(false, true);
+    }
+
+    /**
+     * Merge adjacent segments until none is at least as large as its predecessor. Each merged
+     * segment is written without the write lock and then swapped into a new manifest and snapshot,
+     * unless an update rebuilt the index in the meantime.
+     *
+     * @throws IOException if a segment or the manifest cannot be written
+     */
+    void mergeSegments() throws IOException {
+        do {
+            try {
+                mergeAll();
+            } finally {
+                mergePending.set(false);
+            }
+            // An update may have added a segment after the last check but before the claim was released
+        } while (claimMerge());
+    }
+
+    private void mergeAll() throws IOException {
+        while (true) {
+            SearchSegment first;
+            SearchSegment second;
+            Path target;
+            writeLock.lock();
+            try {
+                List<SearchSegment> segments = snapshot.segments();
+                int i = mergeCandidate(segments);
+                if (i < 0) {
+                    return;
+                }
+                first = segments.get(i - 1);
+                second = segments.get(i);
+                target = directory.resolve(segmentName(nextSegmentId++));
+            } finally {
+                writeLock.unlock();
+            }
+
+            SearchSegment.merge(first, second, target);
+            SearchSegment merged = SearchSegment.open(target);
+
+            writeLock.lock();
+            try {
+                Snapshot current = snapshot;
+                List<SearchSegment> segments = new ArrayList<>(current.segments());
+                int i = segments.indexOf(first);
+                if (i < 0 || i + 1 >= segments.size() || segments.get(i + 1) != second) {
+                    Files.deleteIfExists(target);
+                    continue;
+                }
+                segments.set(i, merged);
+                segments.remove(i + 1);
+                writeManifest(segments, current.docCount());
+                snapshot = new Snapshot(List.copyOf(segments), current.docCount(), current.docs());
+                Files.deleteIfExists(first.getFile());
+                Files.deleteIfExists(second.getFile());
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Binary-counter merge policy: a segment is merged into its predecessor once it is as large.
+     * Taking the leftmost such pair keeps the sizes decreasing from the front, so each commit is
+     * rewritten a logarithmic number of times.
+     *
+     * @return the index of the second segment of the pair to merge, or -1 if none
+     */
+    private static int mergeCandidate(List<SearchSegment> segments) {
+        for (int i = 1; i < segments.size(); i++) {
+            if (segments.get(i).getDocCount() >= segments.get(i - 1).getDocCount()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void writeManifest(List<SearchSegment> segments, int docCount) throws IOException {
+        Properties manifest = new Properties();
+        manifest.setProperty("docs", Integer.toString(docCount));
+        manifest.setProperty("nextSegment", Integer.toString(nextSegmentId));
+        manifest.setProperty("segments", String.join(",",
+                segments.stream().map(s -> s.getFile().getFileName().toString()).toList()));
+        manifest.setProperty("tips", String.join(",",
+                history.getTips().stream().map(ObjectId::getName).sorted().toList()));
+
+        Path temp = directory.resolve(MANIFEST + ".tmp");
+        try (OutputStream out = Files.newOutputStream(temp)) {
+            manifest.store(out, null);
+        }
+        Files.move(temp, directory.resolve(MANIFEST), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    int getDocCount() {
+        return snapshot.docCount();
+    }
+
+    /**
+     * Find commits containing every query term, ranked by tf-idf with newer commits first on ties.
+     *
+     * @param terms  the normalised query terms
+     * @param offset the number of top hits to skip
+     * @param limit  the maximum number of hits to return
+     * @return the total number of matches and the requested page of commit ids
+     */
+    Hits search(List<String> terms, int offset, int limit) {
+        Snapshot current = snapshot;
+        double[] idf = new double[terms.size()];
+        for (int t = 0; t < terms.size(); t++) {
+            int df = 0;
+            for (SearchSegment segment : current.segments()) {
+                df += segment.docFreq(terms.get(t));
+            }
+            if (df == 0) {
+                return new Hits(0, List.of());
+            }
+            idf[t] = Math.log(1.0 + (double) current.docCount() / df);
+        }
+
+        Comparator<ScoredDoc> rank = Comparator.comparingDouble(ScoredDoc::score)
+                .thenComparingInt(ScoredDoc::time)
+                .thenComparingInt(ScoredDoc::doc);
+        PriorityQueue<ScoredDoc> top = new PriorityQueue<>(rank);
+        int wanted = offset + limit;
+        int total = 0;
+
+        for (SearchSegment segment : current.segments()) {
+            SearchSegment.Postings[] lists = new SearchSegment.Postings[terms.size()];
+            boolean present = true;
+            for (int t = 0; t < lists.length && present; t++) {
+                lists[t] = segment.postings(terms.get(t));
+                present = lists[t] != null;
+            }
+            if (!present) {
+                continue;
+            }
+
+            // Drive the intersection from the rarest term
+            int lead = 0;
+            for (int t = 1; t < lists.length; t++) {
+                if (lists[t].size() < lists[lead].size()) {
+                    lead = t;
+                }
+            }
+            candidates:
+            while (lists[lead].next()) {
+                int doc = lists[lead].doc();
+                double score = 0;
+                for (int t = 0; t < lists.length; t++) {
+                    if (t != lead) {
+                        if (!lists[t].advance(doc)) {
+                            break candidates;
+                        }
+                        if (lists[t].doc() != doc) {
+                            continue candidates;
+                        }
+                    }
+                    score += (1 + Math.log(lists[t].freq())) * idf[t];
+                }
+                total++;
+                ScoredDoc hit = new ScoredDoc(doc, score, current.docs().getInt(doc * DOC_RECORD_SIZE + Constants.OBJECT_ID_LENGTH));
+                if (top.size() < wanted) {
+                    top.add(hit);
+                } else if (wanted > 0 && rank.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+        }
+
+        List<ScoredDoc> ranked = new ArrayList<>(top);
+        ranked.sort(rank.reversed());
+        List<ObjectId> ids = new ArrayList<>();
+        byte[] raw = new byte[Constants.OBJECT_ID_LENGTH];
+        for (int i = offset; i < ranked.size(); i++) {
+            current.docs().get(ranked.get(i).doc() * DOC_RECORD_SIZE, raw);
+            ids.add(ObjectId.fromRaw(raw));
+        }
+        return new Hits(total, ids);
+    }
+
+    /**
+     * Split text into lower-case terms of letters and digits.
+     *
+     * @param text the text to tokenize
+     * @return the terms in order of occurrence, including repeats
+     */
+    static List<String> tokenize(String text) {
+        List<String> terms = new ArrayList<>();
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean word = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (word && start < 0) {
+                start = i;
+            } else if (!word && start >= 0) {
+                if (i - start <= MAX_TERM_LENGTH) {
+                    terms.add(text.substring(start, i).toLowerCase(Locale.ROOT));
+                }
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static String segmentName(int id) {
+        return String.format("seg-%08d.idx", id);
+    }
+
+    private static List<String> split(String value) {
+        return value.isEmpty() ? List.of() : List.of(value.split(","));
+    }
+
+    private static ByteBuffer mapDocs(Path directory, int docCount) throws IOException {
+        if (docCount == 0) {
+            return ByteBuffer.allocate(0);
+        }
+        try (FileChannel channel = FileChannel.open(directory.resolve(DOCS), StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, (long) docCount * DOC_RECORD_SIZE);
+        }
+    }
+
+    /**
+     * Search result page.
+     */
+    record Hits(int total, List<ObjectId> ids) {
+    }
+
+    private record ScoredDoc(int doc, double score, int time) {
+    }
+
+    private record Snapshot(List<SearchSegment> segments, int docCount, ByteBuffer docs) {
+    }
+
+    /**
+     * Postings of commits not yet written to a segment, kept sorted by term.
+     */
+    private static final class Batch {
+
+        private final TreeMap<String, List<int[]>> postings = new TreeMap<>();
+        private final ByteArrayOutputStream records = new ByteArrayOutputStream();
+        private final ByteBuffer record = ByteBuffer.allocate(DOC_RECORD_SIZE);
+        private int docBase;
+        private int nextDoc;
+
+        Batch(int docBase) {
+            this.docBase = docBase;
+            this.nextDoc = docBase;
+        }
+
+        int size() {
+            return nextDoc - docBase;
+        }
+
+        void add(RevCommit commit) {
+            int doc = nextDoc++;
+            PersonIdent author = commit.getAuthorIdent();
+            Map<String, Integer> freqs = new HashMap<>();
+            for (String text : new String[] {commit.getFullMessage(), author.getName(), author.getEmailAddress()}) {
+                for (String term : tokenize(text)) {
+                    freqs.merge(term, 1, Integer::sum);
+                }
+            }
+            for (Map.Entry<String, Integer> term : freqs.entrySet()) {
+                postings.computeIfAbsent(term.getKey(), k -> new ArrayList<>()).add(new int[] {doc, term.getValue()});
+            }
+
+            commit.copyRawTo(record.array(), 0);
+            record.putInt(Constants.OBJECT_ID_LENGTH, commit.getCommitTime());
+            records.write(record.array(), 0, DOC_RECORD_SIZE);
+        }
+
+        void reset() {
+            postings.clear();
+            records.reset();
+            docBase = nextDoc;
+        }
+    }
+}
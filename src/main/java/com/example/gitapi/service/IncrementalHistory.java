@@ -0,0 +1,134 @@
+package com.example.gitapi.service;
+
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Tracks which part of a repository's history an index has seen, as the set of branch tips it
+ * was last extended from.
+ * <p>
+ * Each {@link #walk} visits only commits reachable from the current local branches but not from
+ * the remembered tips, so indexes are built by one full walk and then extended in proportion to
+ * the number of new commits. Indexes cannot subtract commits, so when a branch is deleted or
+ * force-moved and {@link #isRewound} reports that visited commits are no longer reachable, the
+ * index has to be rebuilt from a fresh history.
+ */
+class IncrementalHistory {
+
+    /**
+     * Receives each newly reachable commit, newest first.
+     */
+    interface CommitVisitor {
+        void visit(RevCommit commit) throws IOException;
+    }
+
+    private Set<ObjectId> tips;
+
+    IncrementalHistory() {
+        this(Set.of());
+    }
+
+    IncrementalHistory(Set<ObjectId> tips) {
+        this.tips = new HashSet<>(tips);
+    }
+
+    /**
+     * Check whether a remembered tip is no longer reachable from the current branch heads.
+     * <p>
+     * Only walks back from the current heads until every remembered tip has been seen, which for a
+     * branch that moved forward is the few new commits; a full walk is needed only when the
+     * history was actually rewound, and the index is then rebuilt anyway.
+     *
+     * @param repository the repository to read
+     * @return true if commits visited before may no longer be reachable
+     * @throws IOException if the history cannot be read
+     */
+    boolean isRewound(Repository repository) throws IOException {
+        Set<ObjectId> currentTips = branchTips(repository);
+        Set<ObjectId> pending = new HashSet<>(tips);
+        pending.removeAll(currentTips);
+        if (pending.isEmpty()) {
+            return false;
+        }
+        try (RevWalk walk = new RevWalk(repository)) {
+            walk.setRetainBody(false);
+            for (ObjectId tip : currentTips) {
+                walk.markStart(walk.parseCommit(tip));
+            }
+            for (RevCommit commit : walk) {
+                if (pending.remove(commit) && pending.isEmpty()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visit commits reachable from the current branch heads that have not been visited yet.
+     * <p>
+     * Callers check {@link #isRewound} first; commits that are no longer reachable are not
+     * reported here.
+     *
+     * @param repository the repository to read
+     * @param visitor    receives each new commit; its body is disposed afterwards
+     * @return the number of commits visited
+     * @throws IOException if the history cannot be read
+     */
+    int walk(Repository repository, CommitVisitor visitor) throws IOException {
+        Set<ObjectId> currentTips = branchTips(repository);
+        if (tips.containsAll(currentTips)) {
+            tips = currentTips;
+            return 0;
+        }
+
+        int visited = 0;
+
+        try (RevWalk walk = new RevWalk(repository)) {
+            for (ObjectId tip : currentTips) {
+                if (!tips.contains(tip)) {
+                    walk.markStart(walk.parseCommit(tip));
+                }
+            }
+            for (ObjectId tip : tips) {
+                try {
+                    walk.markUninteresting(walk.parseCommit(tip));
+                } catch (MissingObjectException e) {
+                    // Pruned after a rewrite; nothing reachable from it can be walked again
+                }
+            }
+
+            for (RevCommit commit : walk) {
+                visitor.visit(commit);
+                commit.disposeBody();
+                visited++;
+            }
+        }
+
+        tips = currentTips;
+        return visited;
+    }
+
+    private static Set<ObjectId> branchTips(Repository repository) throws IOException {
+        Set<ObjectId> branchTips = new HashSet<>();
+        for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_HEADS)) {
+            if (ref.getObjectId() != null) {
+                branchTips.add(ref.getObjectId().copy());
+            }
+        }
+        return branchTips;
+    }
+
+    Set<ObjectId> getTips() {
+        return Set.copyOf(tips);
+    }
+}
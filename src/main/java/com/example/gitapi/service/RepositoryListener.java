@@ -0,0 +1,19 @@
+package com.example.gitapi.service;
+
+import org.eclipse.jgit.api.Git;
+
+/**
+ * Callback notified by {@link RepositoryService} when the branches of a repository change.
+ */
+public interface RepositoryListener {
+
+    /**
+     * Called after an operation has changed which commits are reachable in a repository: a commit,
+     * clone, merge or batch ref update. A ref update may only delete or rewind branches, so
+     * listeners must not assume that commits were added.
+     *
+     * @param name the name of the repository
+     * @param git  the open repository, valid only for the duration of the call
+     */
+    void onHistoryChanged(String name, Git git);
+}
@@ -3,11 +3,30 @@ package com.example.gitapi.service;
 import com.example.gitapi.exception.GitOperationException;
 import com.example.gitapi.model.BranchInfo;
 import com.example.gitapi.model.CommitInfo;
+import com.example.gitapi.model.MergeInfo;
+import com.example.gitapi.model.RefUpdateInfo;
 import com.example.gitapi.model.Repository;
 import org.eclipse.jgit.api.Git;
 import org.eclipse.jgit.api.errors.GitAPIException;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.lib.BatchRefUpdate;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.NullProgressMonitor;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
 import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.merge.MergeStrategy;
+import org.eclipse.jgit.merge.ResolveMerger;
 import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.transport.ReceiveCommand;
+import org.eclipse.jgit.util.FS;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
@@ -19,7 +38,14 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Service for performing Git operations using JGit.
@@ -27,9 +53,16 @@ import java.util.List;
 @Service
 public class RepositoryService {
 
+    private static final Logger log = LoggerFactory.getLogger(RepositoryService.class);
+
+    private static final Set<String> MERGE_MODES = Set.of("ff", "ff-only", "no-ff");
+
     @Value("${git.repositories.base-path:/tmp/repositories}")
     private String baseRepositoryPath;
 
+    private final List<RepositoryListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<String, LongAdder> accessCounts = new ConcurrentHashMap<>();
+
     /**
      * Initialize a new Git repository.
      *
@@ -71,6 +104,7 @@ public class RepositoryService {
                     .call();
 
             String branch = git.getRepository().getBranch();
+            fireHistoryChanged(name, git);
             git.close();
 
             Repository repository = new Repository(name, repoPath.toString());
@@ -97,7 +131,7 @@ public class RepositoryService {
             throw new GitOperationException("Repository not found: " + name);
         }
 
-        try (Git git = Git.open(repoDir)) {
+        try (Git git = openGit(name)) {
             String branch = git.getRepository().getBranch();
 
             Repository repository = new Repository(name, repoPath.toString());
@@ -118,9 +152,7 @@ public class RepositoryService {
      * @return list of branches
      */
     public List<BranchInfo> listBranches(String name) {
-        Path repoPath = Path.of(baseRepositoryPath, name);
-
-        try (Git git = Git.open(repoPath.toFile())) {
+        try (Git git = openGit(name)) {
             List<BranchInfo> branches = new ArrayList<>();
 
             // Local branches
@@ -145,9 +177,7 @@ public class RepositoryService {
      * @return the created BranchInfo
      */
     public BranchInfo createBranch(String name, String branchName) {
-        Path repoPath = Path.of(baseRepositoryPath, name);
-
-        try (Git git = Git.open(repoPath.toFile())) {
+        try (Git git = openGit(name)) {
             Ref ref = git.branchCreate().setName(branchName).call();
             String commitId = ref.getObjectId() != null ? ref.getObjectId().getName() : "";
 
@@ -165,9 +195,7 @@ public class RepositoryService {
      * @return list of commits
      */
     public List<CommitInfo> listCommits(String name, int limit) {
-        Path repoPath = Path.of(baseRepositoryPath, name);
-
-        try (Git git = Git.open(repoPath.toFile())) {
+        try (Git git = openGit(name)) {
             List<CommitInfo> commits = new ArrayList<>();
 
             Iterable<RevCommit> log = git.log().setMaxCount(limit).call();
@@ -196,9 +224,7 @@ public class RepositoryService {
      * @param filePattern the file pattern to add (e.g., "." for all files)
      */
     public void addFiles(String name, String filePattern) {
-        Path repoPath = Path.of(baseRepositoryPath, name);
-
-        try (Git git = Git.open(repoPath.toFile())) {
+        try (Git git = openGit(name)) {
             git.add().addFilepattern(filePattern).call();
         } catch (IOException | GitAPIException e) {
             throw new GitOperationException("Failed to add files to repository: " + name, e);
@@ -215,13 +241,12 @@ public class RepositoryService {
      * @return the created CommitInfo
      */
     public CommitInfo commit(String name, String message, String author, String email) {
-        Path repoPath = Path.of(baseRepositoryPath, name);
-
-        try (Git git = Git.open(repoPath.toFile())) {
+        try (Git git = openGit(name)) {
             RevCommit commit = git.commit()
                     .setMessage(message)
                     .setAuthor(author, email)
                     .call();
+            fireHistoryChanged(name, git);
 
             LocalDateTime timestamp = LocalDateTime.ofInstant(
                     Instant.ofEpochSecond(commit.getCommitTime()), ZoneId.systemDefault());
@@ -244,15 +269,302 @@ public class RepositoryService {
      * @param branchName the name of the branch to checkout
      */
     public void checkout(String name, String branchName) {
-        Path repoPath = Path.of(baseRepositoryPath, name);
-
-        try (Git git = Git.open(repoPath.toFile())) {
+        try (Git git = openGit(name)) {
             git.checkout().setName(branchName).call();
         } catch (IOException | GitAPIException e) {
             throw new GitOperationException("Failed to checkout branch: " + branchName, e);
         }
     }
 
+    /**
+     * Apply several reference updates as one transaction.
+     * <p>
+     * Each update names the full ref, the id it is expected to have now ({@code oldId}, absent if
+     * the ref must not exist yet) and the revision to move it to ({@code newId}, absent to delete
+     * it); at least one of them is required. Branches under {@code refs/heads/} can only point at
+     * commits. Either every update is applied or none is. The branch checked out in the working
+     * tree is never updated, so the working tree cannot silently fall out of step with its branch.
+     *
+     * @param name    the name of the repository
+     * @param updates the updates to apply; each is annotated with its result
+     * @param force   whether updates that are not fast-forwards are allowed
+     * @return the updates, with the status and message of each
+     */
+    public List<RefUpdateInfo> batchUpdateRefs(String name, List<RefUpdateInfo> updates, boolean force) {
+        try (Git git = openGit(name);
+             RevWalk walk = new RevWalk(git.getRepository())) {
+            org.eclipse.jgit.lib.Repository repository = git.getRepository();
+            String checkedOut = repository.isBare() ? null : repository.getFullBranch();
+
+            List<ReceiveCommand> commands = new ArrayList<>();
+            Set<String> refs = new HashSet<>();
+            ReceiveCommand blocked = null;
+            for (RefUpdateInfo update : updates) {
+                String ref = update.getRef();
+                if (ref == null || !ref.startsWith(Constants.R_REFS)
+                        || !org.eclipse.jgit.lib.Repository.isValidRefName(ref)) {
+                    throw new IllegalArgumentException("Invalid ref name: " + ref);
+                }
+                if (!refs.add(ref)) {
+                    throw new IllegalArgumentException("Ref updated more than once: " + ref);
+                }
+                ObjectId oldId = parseExpectedId(update.getOldId());
+                ObjectId newId = resolveNewId(repository, ref, update.getNewId());
+                if (oldId.equals(ObjectId.zeroId()) && newId.equals(ObjectId.zeroId())) {
+                    throw new IllegalArgumentException("Update of " + ref + " needs an oldId or a newId");
+                }
+                ReceiveCommand command = new ReceiveCommand(oldId, newId, ref);
+                if (ref.equals(checkedOut)) {
+                    blocked = command;
+                }
+                commands.add(command);
+            }
+
+            if (blocked != null) {
+                blocked.setResult(ReceiveCommand.Result.REJECTED_OTHER_REASON, "branch is currently checked out");
+                ReceiveCommand.abort(commands);
+            } else {
+                BatchRefUpdate batch = repository.getRefDatabase().newBatchUpdate()
+                        .setAtomic(true)
+                        .setAllowNonFastForwards(force)
+                        .setRefLogMessage("batch update", false)
+                        .addCommand(commands);
+                batch.execute(walk, NullProgressMonitor.INSTANCE);
+            }
+
+            boolean applied = true;
+            for (int i = 0; i < commands.size(); i++) {
+                ReceiveCommand command = commands.get(i);
+                RefUpdateInfo update = updates.get(i);
+                update.setStatus(command.getResult().name());
+                update.setMessage(command.getMessage());
+                applied &= command.getResult() == ReceiveCommand.Result.OK;
+            }
+            if (applied) {
+                fireHistoryChanged(name, git);
+            }
+            return updates;
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to update refs in repository: " + name, e);
+        }
+    }
+
+    /**
+     * Merge a revision into a branch without touching the working tree.
+     * <p>
+     * The merge is computed in memory and the branch is moved with a compare-and-swap on its
+     * previous id, so a concurrent update to the branch makes the merge fail rather than be lost.
+     * Modes are {@code ff} (fast-forward when possible, otherwise create a merge commit),
+     * {@code ff-only} and {@code no-ff} (always create a merge commit). The branch checked out in
+     * the working tree cannot be the target.
+     *
+     * @param name    the name of the repository
+     * @param target  the branch to merge into
+     * @param source  the revision to merge
+     * @param mode    the fast-forward mode
+     * @param message the merge commit message, or null for a default
+     * @param author  the author name, required if a merge commit is created
+     * @param email   the author email, required if a merge commit is created
+     * @return the outcome of the merge
+     */
+    public MergeInfo merge(String name, String target, String source, String mode,
+                           String message, String author, String email) {
+        if (!MERGE_MODES.contains(mode)) {
+            throw new IllegalArgumentException("Merge mode must be 'ff', 'ff-only' or 'no-ff'");
+        }
+        try (Git git = openGit(name);
+             RevWalk walk = new RevWalk(git.getRepository())) {
+            org.eclipse.jgit.lib.Repository repository = git.getRepository();
+            String targetRef = Constants.R_HEADS + target;
+            Ref ref = repository.exactRef(targetRef);
+            if (ref == null || ref.getObjectId() == null) {
+                throw new IllegalArgumentException("Branch not found: " + target);
+            }
+            if (!repository.isBare() && targetRef.equals(repository.getFullBranch())) {
+                throw new IllegalArgumentException("Cannot merge into the checked out branch: " + target);
+            }
+            ObjectId sourceId;
+            try {
+                sourceId = repository.resolve(source + "^{commit}");
+            } catch (IncorrectObjectTypeException e) {
+                throw new IllegalArgumentException("Merge source is not a commit: " + source);
+            }
+            if (sourceId == null) {
+                throw new IllegalArgumentException("Unknown revision: " + source);
+            }
+
+            RevCommit targetCommit = walk.parseCommit(ref.getObjectId());
+            RevCommit sourceCommit = walk.parseCommit(sourceId);
+            if (walk.isMergedInto(sourceCommit, targetCommit)) {
+                return new MergeInfo(target, source, "up-to-date", targetCommit.getName());
+            }
+            walk.reset();
+            boolean fastForward = walk.isMergedInto(targetCommit, sourceCommit);
+
+            if (fastForward && !"no-ff".equals(mode)) {
+                return moveBranch(name, git, walk, target, source, targetCommit, sourceCommit,
+                        "fast-forward", "merge " + source + ": Fast-forward");
+            }
+            if ("ff-only".equals(mode)) {
+                return new MergeInfo(target, source, "not-fast-forward", null);
+            }
+            if (author == null || author.isBlank() || email == null || email.isBlank()) {
+                throw new IllegalArgumentException("Author name and email are required for a merge commit");
+            }
+
+            ResolveMerger merger = (ResolveMerger) MergeStrategy.RECURSIVE.newMerger(repository, true);
+            if (!merger.merge(targetCommit, sourceCommit)) {
+                MergeInfo result = new MergeInfo(target, source, "conflicts", null);
+                List<String> conflicts = new ArrayList<>(merger.getUnmergedPaths());
+                if (merger.getFailingPaths() != null) {
+                    conflicts.addAll(merger.getFailingPaths().keySet());
+                }
+                result.setConflicts(conflicts);
+                return result;
+            }
+
+            PersonIdent ident = new PersonIdent(author, email);
+            CommitBuilder commit = new CommitBuilder();
+            commit.setTreeId(merger.getResultTreeId());
+            commit.setParentIds(targetCommit, sourceCommit);
+            commit.setAuthor(ident);
+            commit.setCommitter(ident);
+            commit.setMessage(message != null && !message.isBlank()
+                    ? message : "Merge " + source + " into " + target);
+            ObjectId mergeId;
+            try (ObjectInserter inserter = repository.newObjectInserter()) {
+                mergeId = inserter.insert(commit);
+                inserter.flush();
+            }
+            return moveBranch(name, git, walk, target, source, targetCommit, walk.parseCommit(mergeId),
+                    "merged", "merge " + source + ": Merge made by recursive.");
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to merge " + source + " into " + target + " in repository: " + name, e);
+        }
+    }
+
+    private MergeInfo moveBranch(String name, Git git, RevWalk walk, String target, String source,
+                                 RevCommit from, RevCommit to, String status, String reflogMessage)
+            throws IOException {
+        RefUpdate update = git.getRepository().updateRef(Constants.R_HEADS + target);
+        update.setExpectedOldObjectId(from);
+        update.setNewObjectId(to);
+        update.setRefLogMessage(reflogMessage, false);
+        RefUpdate.Result result = update.update(walk);
+        if (result != RefUpdate.Result.FAST_FORWARD) {
+            // The branch moved after it was read; the caller can retry against the new tip
+            return new MergeInfo(target, source, "rejected", null);
+        }
+        fireHistoryChanged(name, git);
+        return new MergeInfo(target, source, status, to.getName());
+    }
+
+    private static ObjectId resolveNewId(org.eclipse.jgit.lib.Repository repository, String ref, String revision)
+            throws IOException {
+        if (revision == null || revision.isBlank()) {
+            return ObjectId.zeroId();
+        }
+        // Branches must stay walkable as history, so peel tags and refuse trees and blobs
+        boolean branch = ref.startsWith(Constants.R_HEADS);
+        ObjectId id;
+        try {
+            id = repository.resolve(branch ? revision + "^{commit}" : revision);
+        } catch (IncorrectObjectTypeException e) {
+            throw new IllegalArgumentException("Branch " + ref + " can only point at a commit: " + revision);
+        }
+        if (id == null) {
+            throw new IllegalArgumentException("Unknown revision: " + revision);
+        }
+        return id;
+    }
+
+    private static ObjectId parseExpectedId(String id) {
+        if (id == null || id.isBlank()) {
+            return ObjectId.zeroId();
+        }
+        if (!ObjectId.isId(id)) {
+            throw new IllegalArgumentException("Expected old id must be a full object id: " + id);
+        }
+        return ObjectId.fromString(id);
+    }
+
+    /**
+     * Open a repository by name and record the access for warm-up ranking.
+     * <p>
+     * Repositories come from JGit's {@link RepositoryCache}, so an instance, its loaded pack
+     * indexes and ref state are reused across requests until the cache expires it.
+     *
+     * @param name the name of the repository
+     * @return the opened Git handle, to be closed by the caller
+     * @throws IOException if the repository cannot be opened
+     */
+    public Git openGit(String name) throws IOException {
+        Git git = openCached(name);
+        accessCounts.computeIfAbsent(name, n -> new LongAdder()).increment();
+        return git;
+    }
+
+    /**
+     * Open a repository by name without counting it as an access.
+     *
+     * @param name the name of the repository
+     * @return the opened Git handle, to be closed by the caller
+     * @throws IOException if the repository cannot be opened
+     */
+    Git openCached(String name) throws IOException {
+        File dir = Path.of(baseRepositoryPath, name).toFile();
+        org.eclipse.jgit.lib.Repository repository =
+                RepositoryCache.open(RepositoryCache.FileKey.lenient(dir, FS.DETECTED), true);
+        return new CachedGit(repository);
+    }
+
+    /**
+     * Get the number of times each repository has been opened since startup.
+     *
+     * @return access counts by repository name
+     */
+    public Map<String, Long> getAccessCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        accessCounts.forEach((name, count) -> counts.put(name, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Register a listener notified whenever commits are added to a repository.
+     *
+     * @param listener the listener to register
+     */
+    public void addListener(RepositoryListener listener) {
+        listeners.add(listener);
+    }
+
+    private void fireHistoryChanged(String name, Git git) {
+        for (RepositoryListener listener : listeners) {
+            try {
+                listener.onHistoryChanged(name, git);
+            } catch (RuntimeException e) {
+                // A failing index must never fail the write that triggered it
+                log.warn("Repository listener failed for {}", name, e);
+            }
+        }
+    }
+
+    /**
+     * Git handle that returns its repository to the {@link RepositoryCache} when closed.
+     */
+    private static final class CachedGit extends Git {
+
+        CachedGit(org.eclipse.jgit.lib.Repository repository) {
+            super(repository);
+        }
+
+        @Override
+        public void close() {
+            super.close();
+            getRepository().close();
+        }
+    }
+
     /**
      * Get the base repository path.
      *
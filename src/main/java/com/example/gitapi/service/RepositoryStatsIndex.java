@@ -0,0 +1,244 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.model.ActivityHistogram;
+import com.example.gitapi.model.AuthorStats;
+import com.example.gitapi.model.RepositoryStats;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Commit statistics for one repository, covering every commit reachable from a local branch.
+ * <p>
+ * The index is built by a single history walk and then extended through {@link IncrementalHistory},
+ * so each update only visits commits that are new since the previous one. When a branch is deleted
+ * or force-moved so that indexed commits may no longer be reachable, the next update rebuilds the
+ * index from scratch. Counts are kept in primitive arrays indexed by author id and by epoch day /
+ * epoch week, and authors are kept ranked by commit count as they are counted, so queries never
+ * sort.
+ */
+class RepositoryStatsIndex {
+
+    private final ZoneId zone;
+
+    private final Map<String, Integer> authorIds = new HashMap<>();
+    private final List<String> authorNames = new ArrayList<>();
+    private final List<String> authorEmails = new ArrayList<>();
+    private int[] authorCommits = new int[16];
+    // Author ids by descending commit count, the position of each id in it, and where each count's run starts
+    private int[] ranking = new int[16];
+    private int[] rankOf = new int[16];
+    private final Map<Integer, Integer> rankRuns = new HashMap<>();
+
+    private Histogram days = new Histogram();
+    private Histogram weeks = new Histogram();
+
+    private IncrementalHistory history = new IncrementalHistory();
+    private long totalCommits;
+    private boolean built;
+
+    RepositoryStatsIndex(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    /**
+     * Walk commits reachable from the current branch heads that have not been indexed yet, or
+     * rebuild the index if indexed commits may have become unreachable. If the walk fails, the
+     * index is emptied and reports itself as not built, so partial counts are never served.
+     *
+     * @param repository the repository to read
+     * @return the number of commits added to the index
+     * @throws IOException if the history cannot be read
+     */
+    synchronized int update(Repository repository) throws IOException {
+        try {
+            if (history.isRewound(repository)) {
+                reset();
+            }
+            int added = history.walk(repository, this::record);
+            built = true;
+            return added;
+        } catch (IOException | RuntimeException e) {
+            reset();
+            built = false;
+            throw e;
+        }
+    }
+
+    private void reset() {
+        authorIds.clear();
+        authorNames.clear();
+        authorEmails.clear();
+        authorCommits = new int[16];
+        ranking = new int[16];
+        rankOf = new int[16];
+        rankRuns.clear();
+        days = new Histogram();
+        weeks = new Histogram();
+        history = new IncrementalHistory();
+        totalCommits = 0;
+    }
+
+    synchronized boolean isBuilt() {
+        return built;
+    }
+
+    private void record(RevCommit commit) {
+        PersonIdent ident = commit.getAuthorIdent();
+        String email = ident.getEmailAddress();
+        Integer id = authorIds.get(email);
+        if (id == null) {
+            id = authorNames.size();
+            authorIds.put(email, id);
+            authorNames.add(ident.getName());
+            authorEmails.add(email);
+            if (id == authorCommits.length) {
+                authorCommits = Arrays.copyOf(authorCommits, id * 2);
+                ranking = Arrays.copyOf(ranking, id * 2);
+                rankOf = Arrays.copyOf(rankOf, id * 2);
+            }
+            ranking[id] = id;
+            rankOf[id] = id;
+            rankRuns.putIfAbsent(0, id);
+        }
+        increment(id);
+
+        long epochDay = LocalDate.ofInstant(Instant.ofEpochSecond(commit.getCommitTime()), zone).toEpochDay();
+        days.increment(epochDay);
+        weeks.increment(weekOf(epochDay));
+        totalCommits++;
+    }
+
+    /**
+     * Count a commit for an author and keep {@link #ranking} sorted: the author swaps places with
+     * the first author of its old count, which is where the run of the new count ends.
+     */
+    private void increment(int id) {
+        int count = authorCommits[id];
+        int from = rankOf[id];
+        int to = rankRuns.get(count);
+        int other = ranking[to];
+        ranking[to] = id;
+        rankOf[id] = to;
+        ranking[from] = other;
+        rankOf[other] = from;
+        authorCommits[id] = count + 1;
+
+        rankRuns.putIfAbsent(count + 1, to);
+        if (to + 1 < authorNames.size() && authorCommits[ranking[to + 1]] == count) {
+            rankRuns.put(count, to + 1);
+        } else {
+            rankRuns.remove(count);
+        }
+    }
+
+    /**
+     * Index of the Monday-based week containing the given epoch day (1970-01-01 was a Thursday).
+     */
+    static long weekOf(long epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    /**
+     * Summarise the index.
+     *
+     * @param name the name of the repository
+     * @return totals and the covered date range
+     */
+    synchronized RepositoryStats summary(String name) {
+        RepositoryStats stats = new RepositoryStats(name, totalCommits, authorNames.size());
+        if (totalCommits > 0) {
+            stats.setFirstCommitDate(LocalDate.ofEpochDay(days.first()));
+            stats.setLastCommitDate(LocalDate.ofEpochDay(days.last()));
+        }
+        return stats;
+    }
+
+    /**
+     * List authors by descending commit count.
+     *
+     * @param limit maximum number of authors to return
+     * @return the most active authors
+     */
+    synchronized List<AuthorStats> authors(int limit) {
+        List<AuthorStats> authors = new ArrayList<>();
+        for (int i = 0; i < Math.min(limit, authorNames.size()); i++) {
+            int id = ranking[i];
+            authors.add(new AuthorStats(authorNames.get(id), authorEmails.get(id), authorCommits[id]));
+        }
+        return authors;
+    }
+
+    /**
+     * Copy the daily or weekly commit counts.
+     *
+     * @param weekly whether to return Monday-based weekly buckets instead of daily ones
+     * @return the histogram, starting at the earliest bucket with a commit
+     */
+    synchronized ActivityHistogram activity(boolean weekly) {
+        if (totalCommits == 0) {
+            return new ActivityHistogram(weekly ? "week" : "day", null, new int[0]);
+        }
+        if (weekly) {
+            return new ActivityHistogram("week", LocalDate.ofEpochDay(weeks.first() * 7 - 3), weeks.counts());
+        }
+        return new ActivityHistogram("day", LocalDate.ofEpochDay(days.first()), days.counts());
+    }
+
+    /**
+     * Dense counter array over a range of long keys that grows in either direction.
+     */
+    private static final class Histogram {
+
+        private long origin;
+        private long first;
+        private long last;
+        private int[] counts;
+
+        void increment(long key) {
+            if (counts == null) {
+                counts = new int[64];
+                origin = key - counts.length / 2;
+                first = key;
+                last = key;
+            } else if (key < origin) {
+                // History is walked newest first, so leave headroom at the front as well
+                int extra = Math.toIntExact(Math.max(counts.length, origin - key));
+                int[] grown = new int[counts.length + extra];
+                System.arraycopy(counts, 0, grown, extra, counts.length);
+                counts = grown;
+                origin -= extra;
+            } else if (key - origin >= counts.length) {
+                counts = Arrays.copyOf(counts, Math.toIntExact(Math.max(counts.length * 2L, key - origin + 1)));
+            }
+            counts[(int) (key - origin)]++;
+            first = Math.min(first, key);
+            last = Math.max(last, key);
+        }
+
+        long first() {
+            return first;
+        }
+
+        long last() {
+            return last;
+        }
+
+        int[] counts() {
+            if (counts == null) {
+                return new int[0];
+            }
+            return Arrays.copyOfRange(counts, (int) (first - origin), (int) (last - origin) + 1);
+        }
+    }
+}
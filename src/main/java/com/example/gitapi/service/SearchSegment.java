@@ -0,0 +1,276 @@
+package com.example.gitapi.service;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Immutable, memory-mapped segment of the commit search index.
+ * <p>
+ * File layout: a fixed header, the postings of every term, then the term dictionary. Postings are
+ * stored as varint pairs of (doc id delta, term frequency) in ascending doc id order. The dictionary
+ * is loaded onto the heap when the segment is opened; postings are read straight from the mapping.
+ */
+final class SearchSegment {
+
+    private static final int MAGIC = 0x47534547;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 28;
+
+    private final Path file;
+    private final int docBase;
+    private final int docCount;
+    private final String[] terms;
+    private final int[] docFreqs;
+    private final long[] offsets;
+    private final MappedByteBuffer buffer;
+
+    private SearchSegment(Path file, int docBase, int docCount, String[] terms, int[] docFreqs,
+                          long[] offsets, MappedByteBuffer buffer) {
+        this.file = file;
+        this.docBase = docBase;
+        this.docCount = docCount;
+        this.terms = terms;
+        this.docFreqs = docFreqs;
+        this.offsets = offsets;
+        this.buffer = buffer;
+    }
+
+    static SearchSegment open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException("Not a search index segment: " + file);
+        }
+        int docBase = buffer.getInt(8);
+        int docCount = buffer.getInt(12);
+        int termCount = buffer.getInt(16);
+        long dictOffset = buffer.getLong(20);
+
+        String[] terms = new String[termCount];
+        int[] docFreqs = new int[termCount];
+        long[] offsets = new long[termCount];
+        ByteBuffer dict = buffer.duplicate().position(Math.toIntExact(dictOffset));
+        for (int i = 0; i < termCount; i++) {
+            byte[] bytes = new byte[readVarInt(dict)];
+            dict.get(bytes);
+            terms[i] = new String(bytes, StandardCharsets.UTF_8);
+            docFreqs[i] = readVarInt(dict);
+            offsets[i] = dict.getLong();
+        }
+        return new SearchSegment(file, docBase, docCount, terms, docFreqs, offsets, buffer);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    int getDocBase() {
+        return docBase;
+    }
+
+    int getDocCount() {
+        return docCount;
+    }
+
+    int docFreq(String term) {
+        int i = Arrays.binarySearch(terms, term);
+        return i < 0 ? 0 : docFreqs[i];
+    }
+
+    /**
+     * Open the postings of a term.
+     *
+     * @param term the term to look up
+     * @return a cursor positioned before the first posting, or null if the term does not occur
+     */
+    Postings postings(String term) {
+        int i = Arrays.binarySearch(terms, term);
+        if (i < 0) {
+            return null;
+        }
+        return new Postings(buffer.duplicate().position(Math.toIntExact(offsets[i])), docFreqs[i], docBase);
+    }
+
+    /**
+     * Merge two adjacent segments into a new segment file; {@code first} must hold the lower doc ids.
+     */
+    static void merge(SearchSegment first, SearchSegment second, Path target) throws IOException {
+        try (Writer writer = new Writer(target, first.docBase, first.docCount + second.docCount)) {
+            int i = 0;
+            int j = 0;
+            while (i < first.terms.length || j < second.terms.length) {
+                int cmp = i == first.terms.length ? 1
+                        : j == second.terms.length ? -1
+                        : first.terms[i].compareTo(second.terms[j]);
+                String term = cmp <= 0 ? first.terms[i] : second.terms[j];
+                writer.startTerm(term);
+                if (cmp <= 0) {
+                    writer.copy(first.postings(term));
+                    i++;
+                }
+                if (cmp >= 0) {
+                    writer.copy(second.postings(term));
+                    j++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Forward-only cursor over the postings of one term.
+     */
+    static final class Postings {
+
+        private final ByteBuffer in;
+        private int remaining;
+        private boolean positioned;
+        private int doc;
+        private int freq;
+
+        private Postings(ByteBuffer in, int count, int docBase) {
+            this.in = in;
+            this.remaining = count;
+            this.doc = docBase;
+        }
+
+        int size() {
+            return remaining;
+        }
+
+        boolean next() {
+            if (remaining == 0) {
+                return false;
+            }
+            doc += readVarInt(in);
+            freq = readVarInt(in);
+            remaining--;
+            positioned = true;
+            return true;
+        }
+
+        /**
+         * Advance to the first posting with a doc id of at least {@code target}.
+         */
+        boolean advance(int target) {
+            if (!positioned && !next()) {
+                return false;
+            }
+            while (doc < target) {
+                if (!next()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        int doc() {
+            return doc;
+        }
+
+        int freq() {
+            return freq;
+        }
+    }
+
+    /**
+     * Sequential segment writer. Terms must be started in ascending order and postings added in
+     * ascending doc id order.
+     */
+    static final class Writer implements AutoCloseable {
+
+        private final Path file;
+        private final DataOutputStream out;
+        private final int docBase;
+        private final int docCount;
+        private final List<String> terms = new ArrayList<>();
+        private final List<long[]> entries = new ArrayList<>();
+        private long position;
+        private int lastDoc;
+        private long[] current;
+
+        Writer(Path file, int docBase, int docCount) throws IOException {
+            this.file = file;
+            this.docBase = docBase;
+            this.docCount = docCount;
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+            out.write(new byte[HEADER_SIZE]);
+            position = HEADER_SIZE;
+        }
+
+        void startTerm(String term) {
+            current = new long[] {0, position};
+            terms.add(term);
+            entries.add(current);
+            lastDoc = docBase;
+        }
+
+        void add(int doc, int freq) throws IOException {
+            writeVarInt(doc - lastDoc);
+            writeVarInt(freq);
+            lastDoc = doc;
+            current[0]++;
+        }
+
+        void copy(Postings postings) throws IOException {
+            while (postings.next()) {
+                add(postings.doc(), postings.freq());
+            }
+        }
+
+        private void writeVarInt(int value) throws IOException {
+            while ((value & ~0x7F) != 0) {
+                out.writeByte((value & 0x7F) | 0x80);
+                value >>>= 7;
+                position++;
+            }
+            out.writeByte(value);
+            position++;
+        }
+
+        @Override
+        public void close() throws IOException {
+            long dictOffset = position;
+            for (int i = 0; i < terms.size(); i++) {
+                byte[] bytes = terms.get(i).getBytes(StandardCharsets.UTF_8);
+                writeVarInt(bytes.length);
+                out.write(bytes);
+                writeVarInt((int) entries.get(i)[0]);
+                out.writeLong(entries.get(i)[1]);
+            }
+            out.close();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC).putInt(VERSION).putInt(docBase).putInt(docCount).putInt(terms.size())
+                    .putLong(dictOffset)
+                    .flip();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                channel.write(header, 0);
+                channel.force(true);
+            }
+        }
+    }
+
+    private static int readVarInt(ByteBuffer in) {
+        int value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+}
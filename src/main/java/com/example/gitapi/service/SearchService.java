@@ -0,0 +1,166 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.exception.GitOperationException;
+import com.example.gitapi.model.CommitInfo;
+import com.example.gitapi.model.CommitSearchResult;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.errors.IncorrectObjectTypeException;
+import org.eclipse.jgit.errors.MissingObjectException;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Service for full-text search over commit messages and author names and emails.
+ * <p>
+ * Each repository's index lives in {@code .git/search-index} and is extended whenever
+ * {@link RepositoryService} reports a commit, clone, merge or ref update, so it survives restarts
+ * without a rebuild.
+ * Searching also picks up commits created outside this service before answering, unless the index
+ * is busy with another update, and the index is rebuilt when a branch is deleted or rewound so
+ * unreachable commits stop matching. Segment merges run on a background thread, so a search never
+ * waits for one.
+ */
+@Service
+public class SearchService implements RepositoryListener {
+
+    private static final String INDEX_DIRECTORY = "search-index";
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+
+    private final RepositoryService repositoryService;
+    private final Map<String, CommitSearchIndex> indexes = new ConcurrentHashMap<>();
+    private final ExecutorService merger = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-index-merger");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SearchService(RepositoryService repositoryService) {
+        this.repositoryService = repositoryService;
+        repositoryService.addListener(this);
+    }
+
+    /**
+     * Search the commits of a repository. Every query word must match the commit message, author
+     * name or author email; results are ranked by relevance, then by recency.
+     *
+     * @param name  the name of the repository
+     * @param query the search words
+     * @param page  the zero-based page number
+     * @param size  the page size
+     * @return the requested page of matching commits
+     */
+    public CommitSearchResult searchCommits(String name, String query, int page, int size) {
+        List<String> terms = CommitSearchIndex.tokenize(query);
+        if (terms.isEmpty()) {
+            throw new IllegalArgumentException("Search query must contain at least one word");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be >= 0 and size between 1 and " + MAX_PAGE_SIZE);
+        }
+
+        try (Git git = repositoryService.openGit(name)) {
+            CommitSearchIndex index = index(name, git);
+            update(name, index, git, !index.isBuilt());
+            CommitSearchIndex.Hits hits = index.search(terms.stream().distinct().toList(),
+                    Math.toIntExact(Math.min((long) page * size, Integer.MAX_VALUE - size)), size);
+
+            // Branches moved by another process since the update above may leave hits pruned by gc
+            int total = hits.total();
+            List<CommitInfo> commits = new ArrayList<>();
+            try (RevWalk walk = new RevWalk(git.getRepository())) {
+                for (ObjectId id : hits.ids()) {
+                    RevCommit commit;
+                    try {
+                        commit = walk.parseCommit(id);
+                    } catch (MissingObjectException | IncorrectObjectTypeException e) {
+                        total--;
+                        continue;
+                    }
+                    LocalDateTime timestamp = LocalDateTime.ofInstant(
+                            Instant.ofEpochSecond(commit.getCommitTime()), ZoneId.systemDefault());
+                    commits.add(new CommitInfo(
+                            commit.getName(),
+                            commit.getFullMessage(),
+                            commit.getAuthorIdent().getName(),
+                            commit.getAuthorIdent().getEmailAddress(),
+                            timestamp));
+                }
+            }
+            return new CommitSearchResult(query, total, page, size, commits);
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to search commits in repository: " + name, e);
+        }
+    }
+
+    @Override
+    public void onHistoryChanged(String name, Git git) {
+        try {
+            update(name, index(name, git), git, true);
+        } catch (IOException e) {
+            throw new GitOperationException("Failed to update search index for repository: " + name, e);
+        }
+    }
+
+    /**
+     * Bring an index up to date with the repository's branches and schedule a merge if needed.
+     *
+     * @param wait whether to wait for a running update, rather than skip this one
+     */
+    private void update(String name, CommitSearchIndex index, Git git, boolean wait) throws IOException {
+        try {
+            if (wait) {
+                index.update(git.getRepository());
+            } else {
+                index.tryUpdate(git.getRepository());
+            }
+        } catch (IOException e) {
+            // Reopen from the last written manifest next time rather than trusting in-memory state
+            indexes.remove(name, index);
+            throw e;
+        }
+        if (index.claimMerge()) {
+            merger.execute(() -> {
+                try {
+                    index.mergeSegments();
+                } catch (IOException | RuntimeException e) {
+                    log.warn("Failed to merge search index segments for repository {}", name, e);
+                    indexes.remove(name, index);
+                }
+            });
+        }
+    }
+
+    private CommitSearchIndex index(String name, Git git) throws IOException {
+        CommitSearchIndex index = indexes.get(name);
+        if (index != null) {
+            return index;
+        }
+        synchronized (indexes) {
+            index = indexes.get(name);
+            if (index == null) {
+                Path directory = git.getRepository().getDirectory().toPath().resolve(INDEX_DIRECTORY);
+                index = CommitSearchIndex.open(directory);
+                indexes.put(name, index);
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.exception.GitOperationException;
+import com.example.gitapi.model.ActivityHistogram;
+import com.example.gitapi.model.AuthorStats;
+import com.example.gitapi.model.RepositoryStats;
+import org.eclipse.jgit.api.Git;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service serving per-repository commit statistics from an in-memory index.
+ * <p>
+ * An index is built by walking the full history the first time a repository's statistics are
+ * requested, and is then extended with only the new commits whenever {@link RepositoryService}
+ * reports a commit, clone, merge or ref update. If branches were deleted or rewound, it is rebuilt
+ * instead. Queries never walk history once the index exists.
+ */
+@Service
+public class StatsService implements RepositoryListener {
+
+    private final RepositoryService repositoryService;
+    private final Map<String, RepositoryStatsIndex> indexes = new ConcurrentHashMap<>();
+
+    public StatsService(RepositoryService repositoryService) {
+        this.repositoryService = repositoryService;
+        repositoryService.addListener(this);
+    }
+
+    /**
+     * Get commit totals for a repository.
+     *
+     * @param name the name of the repository
+     * @return the repository statistics
+     */
+    public RepositoryStats getStats(String name) {
+        return index(name).summary(name);
+    }
+
+    /**
+     * List the most active authors of a repository.
+     *
+     * @param name  the name of the repository
+     * @param limit maximum number of authors to return
+     * @return authors ordered by descending commit count
+     */
+    public List<AuthorStats> getAuthors(String name, int limit) {
+        return index(name).authors(limit);
+    }
+
+    /**
+     * Get the commit activity histogram of a repository.
+     *
+     * @param name        the name of the repository
+     * @param granularity "day" or "week"
+     * @return commit counts per bucket
+     */
+    public ActivityHistogram getActivity(String name, String granularity) {
+        if (!"day".equals(granularity) && !"week".equals(granularity)) {
+            throw new IllegalArgumentException("Granularity must be 'day' or 'week'");
+        }
+        return index(name).activity("week".equals(granularity));
+    }
+
+    @Override
+    public void onHistoryChanged(String name, Git git) {
+        RepositoryStatsIndex index = indexes.get(name);
+        if (index == null) {
+            // Not requested yet; the first query builds it from scratch
+            return;
+        }
+        try {
+            index.update(git.getRepository());
+        } catch (IOException e) {
+            indexes.remove(name, index);
+            throw new GitOperationException("Failed to update statistics for repository: " + name, e);
+        }
+    }
+
+    private RepositoryStatsIndex index(String name) {
+        RepositoryStatsIndex index = indexes.computeIfAbsent(name, n -> new RepositoryStatsIndex(ZoneId.systemDefault()));
+        if (index.isBuilt()) {
+            return index;
+        }
+        try (Git git = repositoryService.openGit(name)) {
+            index.update(git.getRepository());
+            return index;
+        } catch (IOException e) {
+            indexes.remove(name, index);
+            throw new GitOperationException("Failed to build statistics for repository: " + name, e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.model.WarmupStatus;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.Ref;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Service that restores the hottest repositories after a restart.
+ * <p>
+ * On shutdown the most frequently opened repositories and their branch tips are written to a
+ * snapshot file. On startup, before the web server accepts traffic, the snapshot is read back and
+ * those repositories are opened in the background, hottest first: the repository enters JGit's
+ * {@link org.eclipse.jgit.lib.RepositoryCache}, and reading the remembered tips and recent history
+ * loads pack indexes and fills the window cache. {@link #getStatus()} reports readiness once
+ * warm-up finishes or the readiness budget elapses, whichever comes first.
+ */
+@Service
+public class WarmupService implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(WarmupService.class);
+
+    private static final String DEFAULT_SNAPSHOT_FILE = ".warmup-snapshot";
+
+    private final RepositoryService repositoryService;
+    private final int topRepositories;
+    private final int parallelism;
+    private final long readinessBudgetMillis;
+    private final int commitsPerRepository;
+    private final String snapshotFile;
+
+    private final AtomicInteger warmed = new AtomicInteger();
+    private final AtomicInteger failed = new AtomicInteger();
+    private volatile int total;
+    private volatile long startedAt;
+    private volatile boolean running;
+    private volatile ExecutorService executor;
+    private Map<String, Long> previousScores = Map.of();
+
+    public WarmupService(RepositoryService repositoryService,
+                         @Value("${git.warmup.top-repositories:50}") int topRepositories,
+                         @Value("${git.warmup.parallelism:4}") int parallelism,
+                         @Value("${git.warmup.readiness-budget-ms:30000}") long readinessBudgetMillis,
+                         @Value("${git.warmup.commits-per-repository:100}") int commitsPerRepository,
+                         @Value("${git.warmup.snapshot-file:}") String snapshotFile) {
+        this.repositoryService = repositoryService;
+        this.topRepositories = topRepositories;
+        this.parallelism = parallelism;
+        this.readinessBudgetMillis = readinessBudgetMillis;
+        this.commitsPerRepository = commitsPerRepository;
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Read the snapshot and start warming its repositories in the background.
+     */
+    @Override
+    public synchronized void start() {
+        startedAt = System.nanoTime();
+        running = true;
+
+        Map<String, HotRepository> snapshot;
+        try {
+            snapshot = readSnapshot();
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable warm-up snapshot {}", getSnapshotFile(), e);
+            snapshot = Map.of();
+        }
+        Map<String, Long> scores = new HashMap<>();
+        snapshot.forEach((name, hot) -> scores.put(name, hot.score()));
+        previousScores = scores;
+        total = snapshot.size();
+        if (total == 0) {
+            return;
+        }
+
+        AtomicInteger threads = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(parallelism, runnable -> {
+            Thread thread = new Thread(runnable, "repository-warmup-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (HotRepository hot : snapshot.values()) {
+            executor.execute(() -> warm(hot));
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Stop warming and persist the current hot set for the next startup.
+     */
+    @Override
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+        try {
+            writeSnapshot();
+        } catch (IOException e) {
+            log.warn("Failed to write warm-up snapshot {}", getSnapshotFile(), e);
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before the web server so warm-up overlaps its startup, and stop after it so the
+     * snapshot includes every request served.
+     */
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    /**
+     * Get warm-up progress.
+     *
+     * @return counts of warmed and failed repositories and whether traffic should be accepted
+     */
+    public WarmupStatus getStatus() {
+        int done = warmed.get() + failed.get();
+        long elapsed = running ? TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt) : 0;
+        String state;
+        boolean ready;
+        if (done >= total) {
+            state = "complete";
+            ready = true;
+        } else if (elapsed >= readinessBudgetMillis) {
+            state = "budget-exceeded";
+            ready = true;
+        } else {
+            state = "warming";
+            ready = false;
+        }
+        return new WarmupStatus(state, total, warmed.get(), failed.get(), elapsed, ready);
+    }
+
+    private void warm(HotRepository hot) {
+        try (Git git = repositoryService.openCached(hot.name())) {
+            Repository repository = git.getRepository();
+            List<ObjectId> tips = new ArrayList<>(hot.tips());
+            for (Ref ref : repository.getRefDatabase().getRefsByPrefix(Constants.R_HEADS)) {
+                if (ref.getObjectId() != null) {
+                    tips.add(ref.getObjectId());
+                }
+            }
+
+            try (RevWalk walk = new RevWalk(repository)) {
+                for (ObjectId tip : tips) {
+                    if (repository.getObjectDatabase().has(tip)) {
+                        RevCommit commit = walk.parseCommit(tip);
+                        walk.parseHeaders(commit.getTree());
+                        walk.markStart(commit);
+                    }
+                }
+                int walked = 0;
+                while (walked++ < commitsPerRepository && walk.next() != null) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        return;
+                    }
+                }
+            }
+            warmed.incrementAndGet();
+        } catch (IOException | RuntimeException e) {
+            failed.incrementAndGet();
+            log.debug("Failed to warm repository {}", hot.name(), e);
+        }
+    }
+
+    private Path getSnapshotFile() {
+        if (snapshotFile == null || snapshotFile.isBlank()) {
+            return Path.of(repositoryService.getBaseRepositoryPath(), DEFAULT_SNAPSHOT_FILE);
+        }
+        return Path.of(snapshotFile);
+    }
+
+    /**
+     * Read the snapshot: one repository per line, hottest first, as
+     * {@code name<TAB>score<TAB>tip tip ...}.
+     */
+    private Map<String, HotRepository> readSnapshot() throws IOException {
+        Path file = getSnapshotFile();
+        Map<String, HotRepository> snapshot = new LinkedHashMap<>();
+        if (!Files.exists(file)) {
+            return snapshot;
+        }
+        for (String line : Files.readAllLines(file)) {
+            String[] fields = line.split("\t", -1);
+            if (line.isBlank() || line.startsWith("#") || fields.length != 3 || snapshot.size() >= topRepositories) {
+                continue;
+            }
+            long score;
+            try {
+                score = Long.parseLong(fields[1]);
+            } catch (NumberFormatException e) {
+                log.debug("Skipping malformed warm-up snapshot line: {}", line);
+                continue;
+            }
+            List<ObjectId> tips = new ArrayList<>();
+            for (String tip : fields[2].split(" ")) {
+                if (ObjectId.isId(tip)) {
+                    tips.add(ObjectId.fromString(tip));
+                }
+            }
+            snapshot.put(fields[0], new HotRepository(fields[0], score, tips));
+        }
+        return snapshot;
+    }
+
+    private void writeSnapshot() throws IOException {
+        // Scores carry over at half weight so a short-lived instance does not erase the hot set
+        Map<String, Long> scores = new HashMap<>();
+        previousScores.forEach((name, score) -> scores.put(name, score / 2));
+        repositoryService.getAccessCounts().forEach((name, count) -> scores.merge(name, count, Long::sum));
+
+        List<Map.Entry<String, Long>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+
+        Path file = getSnapshotFile();
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+            writer.write("# repository\tscore\tbranch tips");
+            writer.newLine();
+            int written = 0;
+            for (Map.Entry<String, Long> entry : ranked) {
+                if (written >= topRepositories || entry.getValue() == 0) {
+                    break;
+                }
+                List<String> tips = new ArrayList<>();
+                try (Git git = repositoryService.openCached(entry.getKey())) {
+                    for (Ref ref : git.getRepository().getRefDatabase().getRefsByPrefix(Constants.R_HEADS)) {
+                        if (ref.getObjectId() != null) {
+                            tips.add(ref.getObjectId().getName());
+                        }
+                    }
+                } catch (IOException e) {
+                    // Deleted since it was last used
+                    continue;
+                }
+                writer.write(entry.getKey() + "\t" + entry.getValue() + "\t" + String.join(" ", tips));
+                writer.newLine();
+                written++;
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private record HotRepository(String name, long score, List<ObjectId> tips) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.gitapi.config;
+
+import org.eclipse.jgit.storage.file.WindowCacheConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JGitStorageConfigurationTest {
+
+    @AfterEach
+    void restoreDefaults() {
+        JGitStorageConfiguration.toWindowCacheConfig(new JGitStorageProperties()).install();
+    }
+
+    @Test
+    void toWindowCacheConfig_shouldMatchJGitDefaults() {
+        WindowCacheConfig defaults = new WindowCacheConfig();
+
+        WindowCacheConfig config = JGitStorageConfiguration.toWindowCacheConfig(new JGitStorageProperties());
+
+        assertEquals(defaults.getPackedGitLimit(), config.getPackedGitLimit());
+        assertEquals(defaults.getPackedGitWindowSize(), config.getPackedGitWindowSize());
+        assertEquals(defaults.isPackedGitMMAP(), config.isPackedGitMMAP());
+        assertEquals(defaults.getPackedGitOpenFiles(), config.getPackedGitOpenFiles());
+        assertEquals(defaults.getDeltaBaseCacheLimit(), config.getDeltaBaseCacheLimit());
+        assertEquals(defaults.getStreamFileThreshold(), config.getStreamFileThreshold());
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"large-monorepo", "many-small-repos"})
+    void presets_shouldBindAndInstall(String profile) throws IOException {
+        Properties properties = PropertiesLoaderUtils.loadProperties(
+                new ClassPathResource("application-" + profile + ".properties"));
+        JGitStorageProperties bound = new Binder(new MapConfigurationPropertySource(properties))
+                .bind("git.storage", JGitStorageProperties.class)
+                .get();
+
+        assertTrue(bound.getPackedGitLimit().compareTo(DataSize.ofMegabytes(10)) > 0);
+        assertDoesNotThrow(() -> JGitStorageConfiguration.toWindowCacheConfig(bound).install());
+    }
+
+    @Test
+    void install_shouldRejectInvalidWindowSize() {
+        JGitStorageProperties properties = new JGitStorageProperties();
+        properties.setPackedGitWindowSize(DataSize.ofBytes(5000));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> JGitStorageConfiguration.toWindowCacheConfig(properties).install());
+    }
+}
@@ -0,0 +1,207 @@
+package com.example.gitapi.config;
+
+import com.example.gitapi.fixture.SyntheticHistory;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectReader;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.RepositoryCache;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+import org.eclipse.jgit.storage.file.WindowCacheStats;
+import org.eclipse.jgit.treewalk.TreeWalk;
+import org.eclipse.jgit.util.FS;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.Random;
+
+/**
+ * Compares JGit's default storage settings against the shipped presets on two synthetic workloads.
+ * The large-monorepo preset is also run with {@code packed-git-mmap} turned on, to check that
+ * leaving it off is still the faster choice.
+ * <p>
+ * Disabled by default; run with {@code mvn test -Dtest=WindowCacheBenchmarkTest -Dbenchmark=true}.
+ * The numbers quoted in the README come from this benchmark.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class WindowCacheBenchmarkTest {
+
+    private static final int MONO_FILES = 2000;
+    private static final int MONO_FILE_WORDS = 3000;
+    private static final int MONO_COMMITS = 30;
+    private static final int SMALL_REPOS = 300;
+    private static final int SMALL_FILES = 20;
+    private static final int SMALL_COMMITS = 20;
+    private static final int ROUNDS = 10;
+
+    @TempDir
+    static Path tempDir;
+
+    private static Path monoRepo;
+    private static final List<Path> smallRepos = new ArrayList<>();
+
+    @BeforeAll
+    static void createFixtures() throws Exception {
+        Random random = new Random(42);
+        String[] vocabulary = new String[1000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            vocabulary[i] = Long.toString(random.nextLong() & Long.MAX_VALUE, 36);
+        }
+
+        monoRepo = tempDir.resolve("mono.git");
+        createRepository(monoRepo, MONO_FILES, MONO_FILE_WORDS, MONO_COMMITS, MONO_FILES / 10, vocabulary, random);
+        for (int i = 0; i < SMALL_REPOS; i++) {
+            Path repo = tempDir.resolve("small-" + i + ".git");
+            createRepository(repo, SMALL_FILES, 300, SMALL_COMMITS, 3, vocabulary, random);
+            smallRepos.add(repo);
+        }
+    }
+
+    @AfterAll
+    static void restoreDefaults() {
+        JGitStorageConfiguration.toWindowCacheConfig(new JGitStorageProperties()).install();
+    }
+
+    @Test
+    void compareStoragePresets() throws Exception {
+        System.out.println(String.format(Locale.ROOT, "%-22s %-16s %10s %10s %10s %10s %10s",
+                "config", "workload", "ms/round", "stddev ms", "MB/s", "hit ratio", "open files"));
+        for (String profile : new String[] {"default", "large-monorepo", "many-small-repos"}) {
+            compare(profile, load(profile));
+        }
+        JGitStorageProperties mmap = load("large-monorepo");
+        mmap.setPackedGitMmap(true);
+        compare("large-monorepo+mmap", mmap);
+    }
+
+    private static void compare(String config, JGitStorageProperties properties) throws IOException {
+        run(config, "large-monorepo", properties, WindowCacheBenchmarkTest::readMonoRepo);
+        run(config, "many-small-repos", properties, WindowCacheBenchmarkTest::readSmallRepos);
+    }
+
+    private interface Workload {
+        long run() throws IOException;
+    }
+
+    private static void run(String config, String name, JGitStorageProperties properties, Workload workload)
+            throws IOException {
+        RepositoryCache.clear();
+        JGitStorageConfiguration.toWindowCacheConfig(properties).install();
+        workload.run();
+
+        long bytes = 0;
+        double[] rounds = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            bytes += workload.run();
+            rounds[i] = (System.nanoTime() - start) / 1e6;
+        }
+        double millis = 0;
+        for (double round : rounds) {
+            millis += round;
+        }
+        double mean = millis / ROUNDS;
+        double variance = 0;
+        for (double round : rounds) {
+            variance += (round - mean) * (round - mean);
+        }
+        WindowCacheStats stats = WindowCacheStats.getStats();
+        System.out.println(String.format(Locale.ROOT, "%-22s %-16s %10.0f %10.0f %10.1f %10.3f %10d",
+                config, name, mean, Math.sqrt(variance / (ROUNDS - 1)), bytes / 1e6 / (millis / 1000),
+                stats.getHitRatio(), stats.getOpenFileCount()));
+    }
+
+    private static JGitStorageProperties load(String profile) throws IOException {
+        if ("default".equals(profile)) {
+            return new JGitStorageProperties();
+        }
+        Properties properties = PropertiesLoaderUtils.loadProperties(
+                new ClassPathResource("application-" + profile + ".properties"));
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bind("git.storage", JGitStorageProperties.class)
+                .orElseGet(JGitStorageProperties::new);
+    }
+
+    /**
+     * Read every blob at the tip, the middle and the root of the history; older versions are
+     * stored as deltas, so this exercises both the window cache and the delta base cache.
+     */
+    private static long readMonoRepo() throws IOException {
+        try (Repository repository = open(monoRepo);
+             RevWalk walk = new RevWalk(repository)) {
+            List<RevCommit> history = new ArrayList<>();
+            walk.markStart(walk.parseCommit(repository.resolve(Constants.HEAD)));
+            for (RevCommit commit : walk) {
+                history.add(commit);
+            }
+            long bytes = 0;
+            for (RevCommit commit : List.of(history.get(0), history.get(history.size() / 2),
+                    history.get(history.size() - 1))) {
+                bytes += readTree(repository, commit);
+            }
+            return bytes;
+        }
+    }
+
+    /**
+     * Visit every repository like a listing request would: recent history plus the tip's files.
+     */
+    private static long readSmallRepos() throws IOException {
+        long bytes = 0;
+        for (Path path : smallRepos) {
+            try (Repository repository = open(path);
+                 RevWalk walk = new RevWalk(repository)) {
+                RevCommit head = walk.parseCommit(repository.resolve(Constants.HEAD));
+                walk.markStart(head);
+                int count = 0;
+                while (count++ < 10 && walk.next() != null) {
+                    // Walk recent history
+                }
+                bytes += readTree(repository, head);
+            }
+        }
+        return bytes;
+    }
+
+    private static Repository open(Path path) throws IOException {
+        return RepositoryCache.open(RepositoryCache.FileKey.exact(path.toFile(), FS.DETECTED));
+    }
+
+    private static long readTree(Repository repository, RevCommit commit) throws IOException {
+        long bytes = 0;
+        try (ObjectReader reader = repository.newObjectReader();
+             TreeWalk treeWalk = new TreeWalk(reader)) {
+            treeWalk.addTree(commit.getTree());
+            treeWalk.setRecursive(true);
+            while (treeWalk.next()) {
+                bytes += reader.open(treeWalk.getObjectId(0)).getCachedBytes().length;
+            }
+        }
+        return bytes;
+    }
+
+    private static void createRepository(Path path, int files, int words, int commits, int changesPerCommit,
+                                         String[] vocabulary, Random random) throws Exception {
+        try (FileRepository repository = (FileRepository) FileRepositoryBuilder.create(path.toFile())) {
+            repository.create(true);
+            new SyntheticHistory(files, words, changesPerCommit, vocabulary, random).write(repository, commits);
+            Git.wrap(repository).gc().call();
+        }
+    }
+}
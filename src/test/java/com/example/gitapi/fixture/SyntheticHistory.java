@@ -0,0 +1,152 @@
+package com.example.gitapi.fixture;
+
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.CommitBuilder;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.FileMode;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.ObjectInserter;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.lib.RefUpdate;
+import org.eclipse.jgit.lib.Repository;
+import org.eclipse.jgit.lib.TreeFormatter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Writes a reproducible, linear history of synthetic commits for benchmarks and load tests.
+ * <p>
+ * Each file is a list of words drawn from a vocabulary. The first commit adds every file; each
+ * later commit rewrites a few words in {@code changesPerCommit} randomly chosen files, so a repacked
+ * repository stores its history as deltas like a real one. Objects are written straight into a
+ * pack, without a working tree checkout or loose objects, so generating a history costs little
+ * more than hashing and compressing it.
+ */
+public final class SyntheticHistory {
+
+    /**
+     * Name of the i-th file in every generated tree.
+     */
+    public static final String FILE_NAME_FORMAT = "f%04d.txt";
+
+    private static final int WORDS_PER_CHANGE = 5;
+
+    private final int files;
+    private final int words;
+    private final int changesPerCommit;
+    private final String[] vocabulary;
+    private final Random random;
+    private IntFunction<PersonIdent> author = c -> new PersonIdent("Bench", "bench@example.com");
+    private IntFunction<String> message = c -> "Commit " + c;
+
+    /**
+     * @param files            the number of files in every tree
+     * @param words            the number of words in every file
+     * @param changesPerCommit the number of files changed by each commit after the first
+     * @param vocabulary       the words file contents are drawn from
+     * @param random           the source of all choices; the same seed produces the same ids
+     */
+    public SyntheticHistory(int files, int words, int changesPerCommit, String[] vocabulary, Random random) {
+        this.files = files;
+        this.words = words;
+        this.changesPerCommit = changesPerCommit;
+        this.vocabulary = vocabulary;
+        this.random = random;
+    }
+
+    /**
+     * Set the author and committer of each commit, by commit number.
+     */
+    public SyntheticHistory setAuthor(IntFunction<PersonIdent> author) {
+        this.author = author;
+        return this;
+    }
+
+    /**
+     * Set the message of each commit, by commit number.
+     */
+    public SyntheticHistory setMessage(IntFunction<String> message) {
+        this.message = message;
+        return this;
+    }
+
+    /**
+     * Write the history into a freshly created repository, point {@code refs/heads/main} at its
+     * tip and make it the current branch.
+     *
+     * @param repository the repository to write to
+     * @param commits    the number of commits
+     * @return the commit ids, oldest first
+     * @throws IOException if an object or ref cannot be written
+     */
+    public List<ObjectId> write(FileRepository repository, int commits) throws IOException {
+        String[][] contents = new String[files][words];
+        for (String[] file : contents) {
+            for (int w = 0; w < words; w++) {
+                file[w] = word();
+            }
+        }
+
+        List<ObjectId> history = new ArrayList<>(commits);
+        try (ObjectInserter inserter = repository.getObjectDatabase().newPackInserter()) {
+            ObjectId[] blobs = new ObjectId[files];
+            ObjectId parent = null;
+            for (int c = 0; c < commits; c++) {
+                for (int change = 0; change < (c == 0 ? files : changesPerCommit); change++) {
+                    int f = c == 0 ? change : random.nextInt(files);
+                    if (c > 0) {
+                        for (int e = 0; e < WORDS_PER_CHANGE; e++) {
+                            contents[f][random.nextInt(words)] = word();
+                        }
+                    }
+                    blobs[f] = inserter.insert(Constants.OBJ_BLOB,
+                            String.join(" ", contents[f]).getBytes(StandardCharsets.UTF_8));
+                }
+                TreeFormatter tree = new TreeFormatter();
+                for (int f = 0; f < files; f++) {
+                    tree.append(String.format(FILE_NAME_FORMAT, f), FileMode.REGULAR_FILE, blobs[f]);
+                }
+
+                PersonIdent ident = author.apply(c);
+                CommitBuilder commit = new CommitBuilder();
+                commit.setTreeId(inserter.insert(tree));
+                if (parent != null) {
+                    commit.setParentId(parent);
+                }
+                commit.setAuthor(ident);
+                commit.setCommitter(ident);
+                commit.setMessage(message.apply(c));
+                parent = inserter.insert(commit);
+                history.add(parent);
+            }
+            inserter.flush();
+        }
+
+        setBranch(repository, "main", history.get(history.size() - 1));
+        repository.updateRef(Constants.HEAD).link(Constants.R_HEADS + "main");
+        return history;
+    }
+
+    /**
+     * Create or move a branch, regardless of its current value.
+     *
+     * @param repository the repository
+     * @param branch     the short branch name
+     * @param id         the commit to point it at
+     * @throws IOException if the ref cannot be written
+     */
+    public static void setBranch(Repository repository, String branch, ObjectId id) throws IOException {
+        RefUpdate update = repository.updateRef(Constants.R_HEADS + branch);
+        update.setNewObjectId(id);
+        update.forceUpdate();
+    }
+
+    private String word() {
+        return vocabulary[random.nextInt(vocabulary.length)];
+    }
+}
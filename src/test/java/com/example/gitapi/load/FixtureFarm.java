@@ -0,0 +1,131 @@
+package com.example.gitapi.load;
+
+import com.example.gitapi.fixture.SyntheticHistory;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.internal.storage.file.FileRepository;
+import org.eclipse.jgit.lib.Constants;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.lib.PersonIdent;
+import org.eclipse.jgit.storage.file.FileRepositoryBuilder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates a reproducible set of local repositories for load tests.
+ * <p>
+ * Each repository holds a {@link SyntheticHistory} on {@code main} plus a few branches pointing
+ * into it. The same seed always produces the same commits, ids and file contents. Sizes follow a
+ * fixed mix: most repositories are small, a quarter are medium and one in twenty is large; large
+ * repositories are repacked so their history is stored as deltas like a real clone.
+ */
+final class FixtureFarm {
+
+    /**
+     * Shape of one repository in the farm.
+     */
+    enum Size {
+        SMALL(10, 200, 20),
+        MEDIUM(50, 400, 200),
+        LARGE(200, 800, 1500);
+
+        final int files;
+        final int words;
+        final int commits;
+
+        Size(int files, int words, int commits) {
+            this.files = files;
+            this.words = words;
+            this.commits = commits;
+        }
+    }
+
+    /**
+     * A generated repository and the branches created in it.
+     */
+    record Fixture(String name, Size size, List<String> branches) {
+    }
+
+    private static final long START_TIME = 1_600_000_000_000L;
+    private static final int AUTHORS = 8;
+    private static final int BRANCHES = 3;
+    private static final int CHANGES_PER_COMMIT = 3;
+
+    private final Path baseDir;
+    private final Random random;
+    private final String[] vocabulary;
+
+    FixtureFarm(Path baseDir, long seed) {
+        this.baseDir = baseDir;
+        this.random = new Random(seed);
+        this.vocabulary = new String[2000];
+        for (int i = 0; i < vocabulary.length; i++) {
+            char[] letters = new char[4 + random.nextInt(6)];
+            for (int c = 0; c < letters.length; c++) {
+                letters[c] = (char) ('a' + random.nextInt(26));
+            }
+            vocabulary[i] = new String(letters);
+        }
+    }
+
+    /**
+     * Words used in file contents and commit messages, for building search queries.
+     */
+    String[] getVocabulary() {
+        return vocabulary;
+    }
+
+    /**
+     * Create {@code count} repositories named {@code repo-0000}, {@code repo-0001}, ...
+     *
+     * @param count the number of repositories
+     * @return the generated repositories, in name order
+     * @throws Exception if a repository cannot be written
+     */
+    List<Fixture> generate(int count) throws Exception {
+        List<Fixture> fixtures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int roll = random.nextInt(100);
+            Size size = roll < 5 ? Size.LARGE : roll < 30 ? Size.MEDIUM : Size.SMALL;
+            fixtures.add(createRepository(String.format("repo-%04d", i), size));
+        }
+        return fixtures;
+    }
+
+    private Fixture createRepository(String name, Size size) throws Exception {
+        Path dir = baseDir.resolve(name);
+        List<String> branches = new ArrayList<>();
+        try (FileRepository repository = (FileRepository) new FileRepositoryBuilder()
+                .setWorkTree(dir.toFile())
+                .setGitDir(dir.resolve(Constants.DOT_GIT).toFile())
+                .build()) {
+            repository.create(false);
+
+            List<ObjectId> history = new SyntheticHistory(
+                    size.files, size.words, CHANGES_PER_COMMIT, vocabulary, random)
+                    .setAuthor(c -> {
+                        int author = random.nextInt(AUTHORS);
+                        return new PersonIdent("Author " + author, "author" + author + "@example.com",
+                                START_TIME + c * 3_600_000L, 0);
+                    })
+                    .setMessage(c -> word() + " " + word() + " " + word() + "\n\nChange " + c + " of " + name)
+                    .write(repository, size.commits);
+            for (int b = 0; b < BRANCHES; b++) {
+                String branch = "branch-" + b;
+                SyntheticHistory.setBranch(repository, branch, history.get(random.nextInt(history.size())));
+                branches.add(branch);
+            }
+
+            if (size == Size.LARGE) {
+                Git.wrap(repository).gc().call();
+            }
+        }
+        return new Fixture(name, size, branches);
+    }
+
+    private String word() {
+        return vocabulary[random.nextInt(vocabulary.length)];
+    }
+}
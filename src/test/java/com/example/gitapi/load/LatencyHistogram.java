@@ -0,0 +1,84 @@
+package com.example.gitapi.load;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe, fixed-size histogram of latencies in microseconds.
+ * <p>
+ * Values below 128 are counted exactly; above that each power of two is split into 64 buckets, so
+ * a reported percentile is within about 1.5% of the recorded value. Recording is lock-free and
+ * allocation-free, so the histogram can stay on the request path for a whole soak run.
+ */
+final class LatencyHistogram {
+
+    private static final int LINEAR = 128;
+    private static final int SUB_BUCKETS = 64;
+    private static final int BUCKETS = LINEAR + (64 - 7) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucket(value));
+        total.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    long count() {
+        return total.get();
+    }
+
+    double mean() {
+        long count = total.get();
+        return count == 0 ? 0 : (double) sum.get() / count;
+    }
+
+    long max() {
+        return max.get();
+    }
+
+    /**
+     * Get the value below which the given fraction of recorded values fall.
+     *
+     * @param quantile a fraction between 0 and 1
+     * @return the upper bound of the bucket holding that value, in microseconds
+     */
+    long percentile(double quantile) {
+        long count = total.get();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * count);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= Math.max(rank, 1)) {
+                return Math.min(upperBound(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int bucket(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int msb = 63 - Long.numberOfLeadingZeros(value);
+        int top = (int) (value >>> (msb - 6));
+        return LINEAR + (msb - 7) * SUB_BUCKETS + (top - SUB_BUCKETS);
+    }
+
+    private static long upperBound(int bucket) {
+        if (bucket < LINEAR) {
+            return bucket;
+        }
+        int msb = 7 + (bucket - LINEAR) / SUB_BUCKETS;
+        long top = SUB_BUCKETS + (bucket - LINEAR) % SUB_BUCKETS;
+        return ((top + 1) << (msb - 6)) - 1;
+    }
+}
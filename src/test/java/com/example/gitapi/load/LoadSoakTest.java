@@ -0,0 +1,488 @@
+package com.example.gitapi.load;
+
+import com.example.gitapi.fixture.SyntheticHistory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.lang.management.OperatingSystemMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Load and soak test that drives a mixed read/write workload through the REST API.
+ * <p>
+ * A {@link FixtureFarm} of local repositories is generated before the application starts, so the
+ * run needs no network. Worker threads then issue requests over HTTP for a warm-up period, which is
+ * not measured, followed by the measured period. With {@code loadtest.rate} set, requests follow a
+ * fixed schedule and latency is measured from the scheduled start, so a stalled server shows up as
+ * latency rather than as fewer requests. The report covers throughput, latency percentiles per
+ * operation, GC, heap and open file descriptors, and is sampled periodically so drift during a
+ * long soak is visible.
+ * <p>
+ * Disabled by default; run with {@code mvn test -Dtest=LoadSoakTest -Dloadtest=true}. The README
+ * lists the other {@code loadtest.*} properties.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class LoadSoakTest {
+
+    private static final int REPOSITORIES = Integer.getInteger("loadtest.repositories", 200);
+    private static final int THREADS = Integer.getInteger("loadtest.threads", 32);
+    private static final int RATE = Integer.getInteger("loadtest.rate", 0);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private static final Duration SAMPLE_INTERVAL =
+            Duration.parse(System.getProperty("loadtest.sample-interval", "PT10S"));
+    private static final long SEED = Long.getLong("loadtest.seed", 42);
+    private static final double MAX_ERROR_RATE =
+            Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.001"));
+    private static final long MAX_P99_MILLIS = Long.getLong("loadtest.max-p99-ms", 0);
+    private static final int MAX_OPEN_FILE_GROWTH = Integer.getInteger("loadtest.max-open-file-growth", 256);
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.report", "target/load-test-report.txt"));
+
+    /**
+     * Operations in the workload with their relative weights; 80% reads and 20% writes.
+     * Writes go to one scratch repository per worker, so the farm itself is only read.
+     */
+    private enum Operation {
+        REPOSITORY(10, false),
+        BRANCHES(15, false),
+        COMMITS(25, false),
+        STATS(8, false),
+        SEARCH(12, false),
+        BLAME(10, false),
+        COMMIT(10, true),
+        REFS(5, true),
+        MERGE(5, true);
+
+        final int weight;
+        final boolean write;
+
+        Operation(int weight, boolean write) {
+            this.weight = weight;
+            this.write = write;
+        }
+    }
+
+    @TempDir
+    static Path farmDir;
+
+    private static List<FixtureFarm.Fixture> fixtures;
+    private static String[] vocabulary;
+    private static long generationMillis;
+
+    @LocalServerPort
+    private int port;
+
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+    private final LatencyHistogram overall = new LatencyHistogram();
+    private final AtomicReference<LatencyHistogram> interval = new AtomicReference<>(new LatencyHistogram());
+    private final ConcurrentLinkedQueue<String> errorSamples = new ConcurrentLinkedQueue<>();
+    private final List<Sample> samples = new CopyOnWriteArrayList<>();
+
+    @BeforeAll
+    static void generateFarm() throws Exception {
+        long start = System.nanoTime();
+        FixtureFarm farm = new FixtureFarm(farmDir, SEED);
+        fixtures = farm.generate(REPOSITORIES);
+        vocabulary = farm.getVocabulary();
+        generationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
+    @DynamicPropertySource
+    static void properties(DynamicPropertyRegistry registry) {
+        registry.add("git.repositories.base-path", () -> farmDir.toString());
+    }
+
+    @Test
+    void mixedWorkload() throws Exception {
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+        List<Worker> workers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            workers.add(createWorker(i));
+        }
+
+        long start = System.nanoTime();
+        long measureStart = start + WARMUP.toNanos();
+        long end = measureStart + DURATION.toNanos();
+        AtomicLong schedule = new AtomicLong(start);
+        long intervalNanos = RATE > 0 ? TimeUnit.SECONDS.toNanos(1) / RATE : 0;
+
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        AtomicReference<SystemSnapshot> before = new AtomicReference<>(new SystemSnapshot());
+        sampler.schedule(() -> {
+            before.set(new SystemSnapshot());
+            interval.set(new LatencyHistogram());
+        }, measureStart - System.nanoTime(), TimeUnit.NANOSECONDS);
+        sampler.scheduleAtFixedRate(() -> samples.add(sample(measureStart)),
+                measureStart + SAMPLE_INTERVAL.toNanos() - System.nanoTime(), SAMPLE_INTERVAL.toNanos(),
+                TimeUnit.NANOSECONDS);
+
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (Worker worker : workers) {
+            Thread thread = new Thread(() -> {
+                try {
+                    worker.run(schedule, intervalNanos, measureStart, end);
+                } finally {
+                    done.countDown();
+                }
+            }, "load-worker-" + worker.id);
+            thread.start();
+        }
+        done.await();
+        sampler.shutdownNow();
+        sampler.awaitTermination(10, TimeUnit.SECONDS);
+        SystemSnapshot after = new SystemSnapshot();
+        long measuredNanos = System.nanoTime() - measureStart;
+
+        String report = report(before.get(), after, measuredNanos);
+        System.out.println(report);
+        Files.createDirectories(REPORT.toAbsolutePath().getParent());
+        Files.writeString(REPORT, report);
+
+        long errors = stats.values().stream().mapToLong(s -> s.errors.get()).sum();
+        long requests = overall.count() + stats.values().stream().mapToLong(s -> s.rejected.get()).sum();
+        assertTrue(requests > 0, "No requests completed in the measured period");
+        assertTrue((double) errors / requests <= MAX_ERROR_RATE,
+                errors + " of " + requests + " requests failed, e.g. " + errorSamples.peek());
+        if (MAX_P99_MILLIS > 0) {
+            assertTrue(overall.percentile(0.99) <= MAX_P99_MILLIS * 1000,
+                    "p99 latency " + overall.percentile(0.99) / 1000 + "ms exceeds " + MAX_P99_MILLIS + "ms");
+        }
+        // The first sample is taken once the measured period has warmed every pool and cache
+        long baseline = samples.isEmpty() ? before.get().openFiles : samples.get(0).openFiles;
+        if (baseline >= 0) {
+            assertTrue(after.openFiles - baseline <= MAX_OPEN_FILE_GROWTH,
+                    "Open files grew from " + baseline + " to " + after.openFiles);
+        }
+    }
+
+    /**
+     * Create a worker and its scratch repository, with one commit on {@code main} and a
+     * {@code release} branch for merges.
+     */
+    private Worker createWorker(int id) throws Exception {
+        Worker worker = new Worker(id, new Random(SEED + id));
+        expect(post("/init", "{\"name\":\"" + worker.scratch + "\"}"), 201);
+        worker.commit();
+        expect(post("/" + worker.scratch + "/refs", "{\"updates\":["
+                + "{\"ref\":\"refs/heads/release\",\"newId\":\"" + worker.head + "\"},"
+                + "{\"ref\":\"refs/tags/load-0\",\"newId\":\"" + worker.head + "\"}]}"), 200);
+        worker.tag = worker.head;
+        return worker;
+    }
+
+    private final class Worker {
+
+        private final int id;
+        private final Random random;
+        private final String scratch;
+        private int tags;
+        private int commits;
+        private String head;
+        private String tag;
+
+        Worker(int id, Random random) {
+            this.id = id;
+            this.random = random;
+            this.scratch = "scratch-" + id;
+        }
+
+        void run(AtomicLong schedule, long intervalNanos, long measureStart, long end) {
+            while (true) {
+                long intended;
+                if (intervalNanos > 0) {
+                    intended = schedule.getAndAdd(intervalNanos);
+                    long wait;
+                    while ((wait = intended - System.nanoTime()) > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    intended = System.nanoTime();
+                }
+                if (intended >= end) {
+                    return;
+                }
+
+                Operation operation = pick();
+                boolean measured = intended >= measureStart;
+                OperationStats operationStats = stats.get(operation);
+                try {
+                    if (execute(operation) == 503) {
+                        // Shed by a concurrency limit; counted but not an error, and kept out of
+                        // the latency figures, which only describe requests the server accepted
+                        if (measured) {
+                            operationStats.rejected.incrementAndGet();
+                        }
+                        continue;
+                    }
+                } catch (Exception e) {
+                    if (measured) {
+                        operationStats.errors.incrementAndGet();
+                        if (errorSamples.size() < 10) {
+                            errorSamples.add(operation + ": " + e.getMessage());
+                        }
+                    }
+                }
+                if (measured) {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intended);
+                    operationStats.latency.record(micros);
+                    overall.record(micros);
+                    interval.get().record(micros);
+                }
+            }
+        }
+
+        private Operation pick() {
+            int roll = random.nextInt(100);
+            for (Operation operation : Operation.values()) {
+                roll -= operation.weight;
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            return Operation.COMMITS;
+        }
+
+        private int execute(Operation operation) throws Exception {
+            // Skewed towards low indexes so some repositories are hot and most are cold
+            double skew = random.nextDouble();
+            FixtureFarm.Fixture fixture = fixtures.get((int) (skew * skew * fixtures.size()));
+            String repository = "/" + fixture.name();
+            switch (operation) {
+                case REPOSITORY:
+                    return expect(get(repository), 200);
+                case BRANCHES:
+                    return expect(get(repository + "/branches"), 200);
+                case COMMITS:
+                    return expect(get(repository + "/commits?limit=20"), 200);
+                case STATS:
+                    return expect(get(repository + "/stats/authors?limit=10"), 200);
+                case SEARCH:
+                    return expect(get(repository + "/search/commits?q="
+                            + vocabulary[random.nextInt(vocabulary.length)]), 200);
+                case BLAME:
+                    String path = String.format(SyntheticHistory.FILE_NAME_FORMAT, random.nextInt(fixture.size().files));
+                    String rev = fixture.branches().get(random.nextInt(fixture.branches().size()));
+                    return expect(get(repository + "/blame?path=" + path + "&rev=" + rev + "&end=50"), 200, 503);
+                case COMMIT:
+                    commit();
+                    return 201;
+                case REFS:
+                    // Move the scratch tag forward: create the next one and delete the previous one
+                    String updates = "{\"updates\":["
+                            + "{\"ref\":\"refs/tags/load-" + (tags + 1) + "\",\"newId\":\"" + head + "\"},"
+                            + "{\"ref\":\"refs/tags/load-" + tags + "\",\"oldId\":\"" + tag + "\"}]}";
+                    int status = expect(post("/" + scratch + "/refs", updates), 200);
+                    tags++;
+                    tag = head;
+                    return status;
+                case MERGE:
+                    return expect(post("/" + scratch + "/merge", "{\"target\":\"release\",\"source\":\"main\"}"), 200);
+                default:
+                    throw new IllegalStateException("Unknown operation " + operation);
+            }
+        }
+
+        void commit() throws Exception {
+            Files.writeString(farmDir.resolve(scratch).resolve("load.txt"), "worker " + id + " commit " + commits++);
+            expect(post("/" + scratch + "/add", "{\"pattern\":\".\"}"), 200);
+            HttpResponse<String> response = post("/" + scratch + "/commit",
+                    "{\"message\":\"Load commit " + commits + "\",\"author\":\"Load\",\"email\":\"load@example.com\"}");
+            expect(response, 201);
+            head = mapper.readTree(response.body()).get("id").asText();
+        }
+    }
+
+    private HttpResponse<String> get(String path) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String json) throws IOException, InterruptedException {
+        return client.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + "/api/repositories" + path);
+    }
+
+    private static int expect(HttpResponse<String> response, int... statuses) throws IOException {
+        for (int status : statuses) {
+            if (response.statusCode() == status) {
+                return status;
+            }
+        }
+        throw new IOException(response.request().method() + " " + response.uri().getPath()
+                + " returned " + response.statusCode() + ": " + response.body());
+    }
+
+    private Sample sample(long measureStart) {
+        LatencyHistogram window = interval.getAndSet(new LatencyHistogram());
+        SystemSnapshot system = new SystemSnapshot();
+        return new Sample(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - measureStart),
+                window.count() / (double) SAMPLE_INTERVAL.toSeconds(), window.percentile(0.99),
+                system.heapUsed, system.heapAfterGc, system.openFiles, system.gcCount, system.gcMillis);
+    }
+
+    private String report(SystemSnapshot before, SystemSnapshot after, long measuredNanos) {
+        double seconds = measuredNanos / 1e9;
+        StringBuilder out = new StringBuilder();
+        Map<FixtureFarm.Size, Integer> mix = new EnumMap<>(FixtureFarm.Size.class);
+        fixtures.forEach(fixture -> mix.merge(fixture.size(), 1, Integer::sum));
+
+        out.append(String.format(Locale.ROOT, "Load test: %d repositories %s generated in %d ms, %d threads, "
+                        + "rate %s, warm-up %ds, measured %.0fs%n%n",
+                fixtures.size(), mix, generationMillis, THREADS, RATE > 0 ? RATE + "/s" : "unlimited",
+                WARMUP.toSeconds(), seconds));
+
+        out.append(String.format(Locale.ROOT, "%-10s %9s %9s %7s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "rejected", "mean ms", "p50 ms", "p90 ms",
+                "p99 ms", "p99.9 ms", "max ms"));
+        long errors = 0;
+        long rejected = 0;
+        for (Map.Entry<Operation, OperationStats> entry : stats.entrySet()) {
+            OperationStats operation = entry.getValue();
+            errors += operation.errors.get();
+            rejected += operation.rejected.get();
+            appendRow(out, entry.getKey().name().toLowerCase(Locale.ROOT), operation.latency,
+                    operation.errors.get(), operation.rejected.get(), seconds);
+        }
+        appendRow(out, "total", overall, errors, rejected, seconds);
+        long writes = stats.entrySet().stream().filter(entry -> entry.getKey().write)
+                .mapToLong(entry -> entry.getValue().latency.count()).sum();
+        out.append(String.format(Locale.ROOT, "reads %.1f req/s, writes %.1f req/s%n",
+                (overall.count() - writes) / seconds, writes / seconds));
+
+        out.append(String.format(Locale.ROOT, "%nGC during measured period:%n"));
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            long count = gc.getCollectionCount() - before.gcCounts.getOrDefault(gc.getName(), 0L);
+            long millis = gc.getCollectionTime() - before.gcTimes.getOrDefault(gc.getName(), 0L);
+            out.append(String.format(Locale.ROOT, "  %-24s %6d collections %8d ms (%.1f%% of wall time)%n",
+                    gc.getName(), count, millis, 100.0 * millis / (seconds * 1000)));
+        }
+        out.append(String.format(Locale.ROOT, "Heap: used %d MB at start, %d MB at end, %d MB after last GC, "
+                        + "%d MB max%n",
+                before.heapUsed >> 20, after.heapUsed >> 20, after.heapAfterGc >> 20,
+                Runtime.getRuntime().maxMemory() >> 20));
+        out.append(String.format(Locale.ROOT, "Open files: %d at start, %d at end%n", before.openFiles, after.openFiles));
+
+        out.append(String.format(Locale.ROOT, "%nSamples every %ds:%n%8s %9s %9s %12s %14s %10s %8s %8s%n",
+                SAMPLE_INTERVAL.toSeconds(), "t s", "req/s", "p99 ms", "heap MB", "after GC MB", "open files",
+                "GCs", "GC ms"));
+        for (Sample sample : samples) {
+            out.append(String.format(Locale.ROOT, "%8d %9.0f %9.1f %12d %14d %10d %8d %8d%n",
+                    sample.seconds, sample.throughput, sample.p99Micros / 1000.0, sample.heapUsed >> 20,
+                    sample.heapAfterGc >> 20, sample.openFiles, sample.gcCount, sample.gcMillis));
+        }
+        if (!errorSamples.isEmpty()) {
+            out.append(String.format(Locale.ROOT, "%nFirst errors:%n"));
+            errorSamples.forEach(error -> out.append("  ").append(error).append(System.lineSeparator()));
+        }
+        return out.toString();
+    }
+
+    private static void appendRow(StringBuilder out, String name, LatencyHistogram latency, long errors,
+                                  long rejected, double seconds) {
+        out.append(String.format(Locale.ROOT, "%-10s %9d %9.1f %7d %8d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                name, latency.count(), latency.count() / seconds, errors, rejected, latency.mean() / 1000,
+                latency.percentile(0.5) / 1000.0, latency.percentile(0.9) / 1000.0,
+                latency.percentile(0.99) / 1000.0, latency.percentile(0.999) / 1000.0, latency.max() / 1000.0));
+    }
+
+    private static final class OperationStats {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong errors = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+    }
+
+    private record Sample(long seconds, double throughput, long p99Micros, long heapUsed, long heapAfterGc,
+                          long openFiles, long gcCount, long gcMillis) {
+    }
+
+    /**
+     * JVM-wide heap, GC and file descriptor counters at one point in time.
+     */
+    private static final class SystemSnapshot {
+
+        final long heapUsed;
+        final long heapAfterGc;
+        final long openFiles;
+        final long gcCount;
+        final long gcMillis;
+        final Map<String, Long> gcCounts = new HashMap<>();
+        final Map<String, Long> gcTimes = new HashMap<>();
+
+        SystemSnapshot() {
+            heapUsed = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+            long afterGc = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage usage = pool.getCollectionUsage();
+                if (pool.getType() == MemoryType.HEAP && usage != null) {
+                    afterGc += usage.getUsed();
+                }
+            }
+            heapAfterGc = afterGc;
+
+            OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+            openFiles = os instanceof com.sun.management.UnixOperatingSystemMXBean unix
+                    ? unix.getOpenFileDescriptorCount() : -1;
+
+            long count = 0;
+            long millis = 0;
+            for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+                gcCounts.put(gc.getName(), gc.getCollectionCount());
+                gcTimes.put(gc.getName(), gc.getCollectionTime());
+                count += gc.getCollectionCount();
+                millis += gc.getCollectionTime();
+            }
+            gcCount = count;
+            gcMillis = millis;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.exception.OperationLimitExceededException;
+import com.example.gitapi.model.BlameInfo;
+import com.example.gitapi.model.BlameRegion;
+import com.example.gitapi.model.CommitInfo;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlameServiceTest {
+
+    private RepositoryService repositoryService;
+    private BlameService blameService;
+
+    @TempDir
+    Path tempDir;
+
+    private CommitInfo first;
+    private CommitInfo second;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repositoryService = new RepositoryService();
+        repositoryService.setBaseRepositoryPath(tempDir.toString());
+        blameService = new BlameService(repositoryService, 2, 10_000, 16);
+
+        repositoryService.initRepository("test-repo");
+        Path file = tempDir.resolve("test-repo").resolve("test.txt");
+        Files.writeString(file, "one\ntwo\nthree\n");
+        repositoryService.addFiles("test-repo", ".");
+        first = repositoryService.commit("test-repo", "Initial commit", "Alice", "alice@example.com");
+
+        Files.writeString(file, "one\ntwo\nthree\nfour\nfive\n");
+        repositoryService.addFiles("test-repo", ".");
+        second = repositoryService.commit("test-repo", "Append lines", "Bob", "bob@example.com");
+    }
+
+    @Test
+    void blame_shouldGroupLinesIntoRegions() {
+        BlameInfo blame = blameService.blame("test-repo", "test.txt", "HEAD", 1, null);
+
+        assertTrue(blame.isComplete());
+        assertEquals(5, blame.getLineCount());
+        assertEquals(second.getId(), blame.getCommitId());
+        assertEquals(2, blame.getRegions().size());
+
+        BlameRegion old = blame.getRegions().get(0);
+        assertEquals(1, old.getStartLine());
+        assertEquals(3, old.getLineCount());
+        assertEquals(first.getId(), old.getCommitId());
+        assertEquals("Alice", old.getAuthor());
+
+        BlameRegion added = blame.getRegions().get(1);
+        assertEquals(4, added.getStartLine());
+        assertEquals(2, added.getLineCount());
+        assertEquals(second.getId(), added.getCommitId());
+    }
+
+    @Test
+    void blame_shouldReturnRequestedLineRangeOnly() {
+        BlameInfo blame = blameService.blame("test-repo", "test.txt", "HEAD", 3, 4);
+
+        assertEquals(2, blame.getRegions().size());
+        assertEquals(3, blame.getRegions().get(0).getStartLine());
+        assertEquals(1, blame.getRegions().get(0).getLineCount());
+        assertEquals(4, blame.getRegions().get(1).getStartLine());
+    }
+
+    @Test
+    void blame_shouldResolveOlderRevisions() {
+        BlameInfo blame = blameService.blame("test-repo", "test.txt", first.getId(), 1, null);
+
+        assertEquals(3, blame.getLineCount());
+        assertEquals(1, blame.getRegions().size());
+        assertEquals(first.getId(), blame.getRegions().get(0).getCommitId());
+    }
+
+    @Test
+    void blame_shouldReturnPartialResultWhenBudgetIsExhausted() {
+        BlameService budgetless = new BlameService(repositoryService, 2, 0, 16);
+        List<Runnable> workers = new ArrayList<>();
+        budgetless.setExecutor(workers::add);
+
+        BlameInfo blame = budgetless.blame("test-repo", "test.txt", "HEAD", 1, null);
+
+        assertFalse(blame.isComplete());
+        assertEquals(5, blame.getLineCount());
+        assertNull(blame.getRegions().get(0).getCommitId());
+
+        // The computation was left running and finishes without another request waiting for it
+        assertEquals(1, workers.size());
+        workers.get(0).run();
+        assertTrue(budgetless.blame("test-repo", "test.txt", "HEAD", 1, null).isComplete());
+    }
+
+    @Test
+    void blame_shouldKeepComputingAfterBudgetIsExhausted() throws InterruptedException {
+        BlameService budgetless = new BlameService(repositoryService, 2, 0, 16);
+
+        BlameInfo blame = budgetless.blame("test-repo", "test.txt", "HEAD", 1, null);
+        for (int i = 0; i < 500 && !blame.isComplete(); i++) {
+            Thread.sleep(10);
+            blame = budgetless.blame("test-repo", "test.txt", "HEAD", 1, null);
+        }
+
+        assertTrue(blame.isComplete());
+        assertEquals(first.getId(), blame.getRegions().get(0).getCommitId());
+    }
+
+    @Test
+    void blame_shouldRejectWhenConcurrencyLimitIsReached() {
+        BlameService limited = new BlameService(repositoryService, 0, 10_000, 16);
+
+        assertThrows(OperationLimitExceededException.class,
+                () -> limited.blame("test-repo", "test.txt", "HEAD", 1, null));
+    }
+
+    @Test
+    void blame_shouldRejectUnknownPath() {
+        assertThrows(IllegalArgumentException.class,
+                () -> blameService.blame("test-repo", "missing.txt", "HEAD", 1, null));
+    }
+
+    @Test
+    void blame_shouldRejectRevisionThatIsNotACommit() {
+        assertThrows(IllegalArgumentException.class,
+                () -> blameService.blame("test-repo", "test.txt", "HEAD^{tree}", 1, null));
+    }
+
+    @Test
+    void streamBlame_shouldEmitEveryRegion() throws IOException {
+        List<BlameRegion> regions = new ArrayList<>();
+        blameService.streamBlame("test-repo", "test.txt", "HEAD", 1, null).writeTo(regions::add);
+
+        regions.sort(Comparator.comparingInt(BlameRegion::getStartLine));
+        assertEquals(2, regions.size());
+        assertEquals(first.getId(), regions.get(0).getCommitId());
+        assertEquals(3, regions.get(0).getLineCount());
+        assertEquals(second.getId(), regions.get(1).getCommitId());
+        assertEquals(4, regions.get(1).getStartLine());
+
+        // A second stream is served from the completed cache entry
+        List<BlameRegion> cached = new ArrayList<>();
+        blameService.streamBlame("test-repo", "test.txt", "HEAD", 2, 4).writeTo(cached::add);
+        assertEquals(2, cached.size());
+        assertEquals(5, cached.stream().mapToInt(r -> r.getStartLine() + r.getLineCount()).max().orElse(0));
+    }
+
+    @Test
+    void streamBlame_shouldNotBlockOtherRequestsWhileWriting() throws Exception {
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlameService.BlameStream stream = blameService.streamBlame("test-repo", "test.txt", "HEAD", 1, null);
+        Thread slowClient = new Thread(() -> {
+            try {
+                stream.writeTo(region -> {
+                    writing.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        slowClient.start();
+        try {
+            assertTrue(writing.await(10, TimeUnit.SECONDS));
+
+            BlameInfo blame = blameService.blame("test-repo", "test.txt", "HEAD", 1, null);
+
+            assertTrue(blame.isComplete());
+        } finally {
+            release.countDown();
+            slowClient.join();
+        }
+    }
+
+    @Test
+    void streamBlame_shouldRejectUnknownPathBeforeStreaming() {
+        assertThrows(IllegalArgumentException.class,
+                () -> blameService.streamBlame("test-repo", "missing.txt", "HEAD", 1, null));
+    }
+}
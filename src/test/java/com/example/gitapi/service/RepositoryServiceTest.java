@@ -2,7 +2,14 @@ package com.example.gitapi.service;
 
 import com.example.gitapi.model.BranchInfo;
 import com.example.gitapi.model.CommitInfo;
+import com.example.gitapi.model.MergeInfo;
+import com.example.gitapi.model.RefUpdateInfo;
 import com.example.gitapi.model.Repository;
+import org.eclipse.jgit.api.Git;
+import org.eclipse.jgit.lib.ObjectId;
+import org.eclipse.jgit.revwalk.RevCommit;
+import org.eclipse.jgit.revwalk.RevWalk;
+import org.eclipse.jgit.treewalk.TreeWalk;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -142,4 +149,189 @@ class RepositoryServiceTest {
         Repository repository = repositoryService.getRepository(repoName);
         assertEquals("feature-branch", repository.getCurrentBranch());
     }
+
+    @Test
+    void batchUpdateRefs_shouldApplyAllUpdates() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        String first = commitFile(repoName, "test.txt", "one", "First commit");
+        String second = commitFile(repoName, "test.txt", "two", "Second commit");
+        repositoryService.createBranch(repoName, "release");
+
+        List<RefUpdateInfo> results = repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/heads/release", second, first),
+                new RefUpdateInfo("refs/heads/hotfix", null, first),
+                new RefUpdateInfo("refs/tags/v1.0", null, "main")), true);
+
+        assertTrue(results.stream().allMatch(r -> "OK".equals(r.getStatus())));
+        assertEquals(first, branchId(repoName, "release"));
+        assertEquals(first, branchId(repoName, "hotfix"));
+    }
+
+    @Test
+    void batchUpdateRefs_shouldApplyNothingWhenAnyExpectationFails() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        String first = commitFile(repoName, "test.txt", "one", "First commit");
+        String second = commitFile(repoName, "test.txt", "two", "Second commit");
+        repositoryService.createBranch(repoName, "release");
+
+        List<RefUpdateInfo> results = repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/heads/hotfix", null, first),
+                new RefUpdateInfo("refs/heads/release", first, second)), false);
+
+        assertNotEquals("OK", results.get(1).getStatus());
+        assertTrue(results.stream().noneMatch(r -> "OK".equals(r.getStatus())));
+        assertNull(branchId(repoName, "hotfix"));
+    }
+
+    @Test
+    void batchUpdateRefs_shouldRejectNonFastForwardUnlessForced() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        String first = commitFile(repoName, "test.txt", "one", "First commit");
+        String second = commitFile(repoName, "test.txt", "two", "Second commit");
+        repositoryService.createBranch(repoName, "release");
+
+        List<RefUpdateInfo> results = repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/heads/release", second, first)), false);
+
+        assertEquals("REJECTED_NONFASTFORWARD", results.get(0).getStatus());
+        assertEquals(second, branchId(repoName, "release"));
+    }
+
+    @Test
+    void batchUpdateRefs_shouldNotMoveCheckedOutBranch() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        String first = commitFile(repoName, "test.txt", "one", "First commit");
+        String second = commitFile(repoName, "test.txt", "two", "Second commit");
+
+        List<RefUpdateInfo> results = repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/heads/main", second, first)), true);
+
+        assertEquals("REJECTED_OTHER_REASON", results.get(0).getStatus());
+        assertEquals(second, branchId(repoName, "main"));
+    }
+
+    @Test
+    void batchUpdateRefs_shouldOnlyPointBranchesAtCommits() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "test.txt", "one", "First commit");
+
+        assertThrows(IllegalArgumentException.class, () -> repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/heads/tree", null, "main^{tree}")), false));
+        assertThrows(IllegalArgumentException.class, () -> repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/heads/blob", null, "main:test.txt")), false));
+        assertNull(branchId(repoName, "tree"));
+
+        List<RefUpdateInfo> results = repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/tags/tree", null, "main^{tree}")), false);
+        assertEquals("OK", results.get(0).getStatus());
+    }
+
+    @Test
+    void batchUpdateRefs_shouldRejectUpdateWithoutOldOrNewId() {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+
+        assertThrows(IllegalArgumentException.class, () -> repositoryService.batchUpdateRefs(repoName, List.of(
+                new RefUpdateInfo("refs/heads/release", null, null)), false));
+    }
+
+    @Test
+    void merge_shouldFastForwardWithoutCheckout() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "test.txt", "one", "First commit");
+        repositoryService.createBranch(repoName, "release");
+        String second = commitFile(repoName, "test.txt", "two", "Second commit");
+
+        MergeInfo result = repositoryService.merge(repoName, "release", "main", "ff", null, null, null);
+
+        assertEquals("fast-forward", result.getStatus());
+        assertEquals(second, result.getCommitId());
+        assertEquals(second, branchId(repoName, "release"));
+        assertEquals("up-to-date",
+                repositoryService.merge(repoName, "release", "main", "ff", null, null, null).getStatus());
+    }
+
+    @Test
+    void merge_shouldRejectSourceThatIsNotACommit() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "test.txt", "one", "First commit");
+        repositoryService.createBranch(repoName, "release");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> repositoryService.merge(repoName, "release", "main^{tree}", "ff", null, null, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> repositoryService.merge(repoName, "release", "main:test.txt", "ff", null, null, null));
+    }
+
+    @Test
+    void merge_shouldCreateMergeCommitInCore() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "test.txt", "one", "First commit");
+        repositoryService.createBranch(repoName, "release");
+        repositoryService.checkout(repoName, "release");
+        String releaseTip = commitFile(repoName, "release.txt", "fix", "Release fix");
+        repositoryService.checkout(repoName, "main");
+        String mainTip = commitFile(repoName, "feature.txt", "feature", "Feature");
+
+        assertEquals("not-fast-forward",
+                repositoryService.merge(repoName, "release", "main", "ff-only", null, null, null).getStatus());
+
+        MergeInfo result = repositoryService.merge(repoName, "release", "main", "ff", null,
+                "Test Author", "test@example.com");
+
+        assertEquals("merged", result.getStatus());
+        assertEquals(result.getCommitId(), branchId(repoName, "release"));
+        assertEquals(mainTip, branchId(repoName, "main"));
+        assertFalse(Files.exists(tempDir.resolve(repoName).resolve("release.txt")));
+        try (Git git = repositoryService.openGit(repoName);
+             RevWalk walk = new RevWalk(git.getRepository())) {
+            RevCommit merge = walk.parseCommit(ObjectId.fromString(result.getCommitId()));
+            assertEquals(releaseTip, merge.getParent(0).getName());
+            assertEquals(mainTip, merge.getParent(1).getName());
+            assertNotNull(TreeWalk.forPath(git.getRepository(), "release.txt", merge.getTree()));
+            assertNotNull(TreeWalk.forPath(git.getRepository(), "feature.txt", merge.getTree()));
+        }
+    }
+
+    @Test
+    void merge_shouldReportConflictsWithoutMovingBranch() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "test.txt", "one", "First commit");
+        repositoryService.createBranch(repoName, "release");
+        repositoryService.checkout(repoName, "release");
+        String releaseTip = commitFile(repoName, "test.txt", "release", "Release change");
+        repositoryService.checkout(repoName, "main");
+        commitFile(repoName, "test.txt", "main", "Main change");
+
+        MergeInfo result = repositoryService.merge(repoName, "release", "main", "no-ff", null,
+                "Test Author", "test@example.com");
+
+        assertEquals("conflicts", result.getStatus());
+        assertEquals(List.of("test.txt"), result.getConflicts());
+        assertNull(result.getCommitId());
+        assertEquals(releaseTip, branchId(repoName, "release"));
+    }
+
+    private String commitFile(String repoName, String file, String content, String message) throws IOException {
+        Files.writeString(tempDir.resolve(repoName).resolve(file), content);
+        repositoryService.addFiles(repoName, ".");
+        return repositoryService.commit(repoName, message, "Test Author", "test@example.com").getId();
+    }
+
+    private String branchId(String repoName, String branch) {
+        return repositoryService.listBranches(repoName).stream()
+                .filter(b -> b.getName().equals(branch))
+                .map(BranchInfo::getLastCommitId)
+                .findFirst()
+                .orElse(null);
+    }
 }
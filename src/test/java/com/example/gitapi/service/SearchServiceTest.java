@@ -0,0 +1,189 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.model.CommitSearchResult;
+import com.example.gitapi.model.RefUpdateInfo;
+import org.eclipse.jgit.api.Git;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SearchServiceTest {
+
+    private RepositoryService repositoryService;
+    private SearchService searchService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        repositoryService = new RepositoryService();
+        repositoryService.setBaseRepositoryPath(tempDir.toString());
+        searchService = new SearchService(repositoryService);
+        repositoryService.initRepository("test-repo");
+    }
+
+    private void commit(String message, String author, String email) throws IOException {
+        Path file = tempDir.resolve("test-repo").resolve("file.txt");
+        Files.writeString(file, message);
+        repositoryService.addFiles("test-repo", ".");
+        repositoryService.commit("test-repo", message, author, email);
+    }
+
+    @Test
+    void searchCommits_shouldMatchAllWords() throws IOException {
+        commit("Fix login redirect", "Alice", "alice@example.com");
+        commit("Fix logout button", "Bob", "bob@example.com");
+        commit("Add login page", "Alice", "alice@example.com");
+
+        CommitSearchResult result = searchService.searchCommits("test-repo", "fix LOGIN", 0, 10);
+
+        assertEquals(1, result.getTotalHits());
+        assertEquals("Fix login redirect", result.getCommits().get(0).getMessage());
+    }
+
+    @Test
+    void searchCommits_shouldMatchAuthorNameAndEmail() throws IOException {
+        commit("First change", "Alice Smith", "alice@example.com");
+        commit("Second change", "Bob Jones", "bob@example.org");
+
+        assertEquals(1, searchService.searchCommits("test-repo", "smith", 0, 10).getTotalHits());
+        assertEquals(1, searchService.searchCommits("test-repo", "bob@example.org", 0, 10).getTotalHits());
+        assertEquals(2, searchService.searchCommits("test-repo", "change", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void searchCommits_shouldRankByTermFrequencyThenRecency() throws IOException {
+        commit("cache: tune cache size for cache misses", "Alice", "alice@example.com");
+        commit("Use cache", "Alice", "alice@example.com");
+
+        CommitSearchResult result = searchService.searchCommits("test-repo", "cache", 0, 10);
+
+        assertEquals(2, result.getTotalHits());
+        assertTrue(result.getCommits().get(0).getMessage().startsWith("cache: tune"));
+    }
+
+    @Test
+    void searchCommits_shouldPaginateAcrossMergedSegments() throws IOException {
+        for (int i = 0; i < 7; i++) {
+            commit("Release step " + i, "Alice", "alice@example.com");
+        }
+
+        CommitSearchResult first = searchService.searchCommits("test-repo", "release", 0, 3);
+        CommitSearchResult last = searchService.searchCommits("test-repo", "release", 2, 3);
+
+        assertEquals(7, first.getTotalHits());
+        assertEquals(3, first.getCommits().size());
+        assertEquals(1, last.getCommits().size());
+        assertEquals("Release step 0", last.getCommits().get(0).getMessage());
+    }
+
+    @Test
+    void searchCommits_shouldReuseIndexAfterRestart() throws IOException {
+        commit("Persisted message", "Alice", "alice@example.com");
+        assertEquals(1, searchService.searchCommits("test-repo", "persisted", 0, 10).getTotalHits());
+
+        RepositoryService restarted = new RepositoryService();
+        restarted.setBaseRepositoryPath(tempDir.toString());
+        SearchService reopened = new SearchService(restarted);
+
+        assertEquals(1, reopened.searchCommits("test-repo", "persisted", 0, 10).getTotalHits());
+        assertTrue(Files.exists(tempDir.resolve("test-repo/.git/search-index/manifest")));
+    }
+
+    @Test
+    void searchCommits_shouldDropCommitsOfDeletedBranch() throws IOException {
+        commit("Mainline work", "Alice", "alice@example.com");
+        repositoryService.createBranch("test-repo", "feature");
+        repositoryService.checkout("test-repo", "feature");
+        commit("Experimental work", "Bob", "bob@example.com");
+        repositoryService.checkout("test-repo", "main");
+        assertEquals(2, searchService.searchCommits("test-repo", "work", 0, 10).getTotalHits());
+
+        String featureTip = repositoryService.listBranches("test-repo").stream()
+                .filter(b -> b.getName().equals("feature")).findFirst().orElseThrow().getLastCommitId();
+        repositoryService.batchUpdateRefs("test-repo",
+                List.of(new RefUpdateInfo("refs/heads/feature", featureTip, null)), false);
+
+        assertEquals(0, searchService.searchCommits("test-repo", "experimental", 0, 10).getTotalHits());
+        assertEquals(1, searchService.searchCommits("test-repo", "work", 0, 10).getTotalHits());
+
+        RepositoryService restarted = new RepositoryService();
+        restarted.setBaseRepositoryPath(tempDir.toString());
+        assertEquals(1, new SearchService(restarted).searchCommits("test-repo", "work", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void searchCommits_shouldSurviveBranchDeletedAndPrunedOutsideService() throws Exception {
+        commit("Mainline work", "Alice", "alice@example.com");
+        repositoryService.createBranch("test-repo", "feature");
+        repositoryService.checkout("test-repo", "feature");
+        commit("Experimental work", "Bob", "bob@example.com");
+        repositoryService.checkout("test-repo", "main");
+        assertEquals(2, searchService.searchCommits("test-repo", "work", 0, 10).getTotalHits());
+
+        try (Git git = Git.open(tempDir.resolve("test-repo").toFile())) {
+            git.branchDelete().setBranchNames("feature").setForce(true).call();
+            git.getRepository().getConfig().setString("gc", null, "reflogExpire", "now");
+            git.gc().setExpire(new Date()).call();
+        }
+
+        CommitSearchResult result = searchService.searchCommits("test-repo", "work", 0, 10);
+        assertEquals(1, result.getTotalHits());
+        assertEquals("Mainline work", result.getCommits().get(0).getMessage());
+    }
+
+    @Test
+    void searchCommits_shouldMergeSegmentsInBackground() throws Exception {
+        for (int i = 0; i < 8; i++) {
+            commit("Merge step " + i, "Alice", "alice@example.com");
+        }
+        assertEquals(8, searchService.searchCommits("test-repo", "merge", 0, 10).getTotalHits());
+
+        // Each commit appends a one-commit segment; the merger folds them into a single segment
+        Path manifest = tempDir.resolve("test-repo/.git/search-index/manifest");
+        String segments = "";
+        for (int i = 0; i < 500; i++) {
+            Properties properties = new Properties();
+            try (InputStream in = Files.newInputStream(manifest)) {
+                properties.load(in);
+            }
+            segments = properties.getProperty("segments");
+            if (!segments.contains(",")) {
+                break;
+            }
+            Thread.sleep(10);
+        }
+        assertFalse(segments.contains(","), segments);
+        assertEquals(8, searchService.searchCommits("test-repo", "merge", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void searchCommits_shouldRebuildDamagedIndex() throws IOException {
+        commit("Persisted message", "Alice", "alice@example.com");
+        assertEquals(1, searchService.searchCommits("test-repo", "persisted", 0, 10).getTotalHits());
+        Files.writeString(tempDir.resolve("test-repo/.git/search-index/manifest"), "docs=many\n");
+
+        RepositoryService restarted = new RepositoryService();
+        restarted.setBaseRepositoryPath(tempDir.toString());
+        SearchService reopened = new SearchService(restarted);
+
+        assertEquals(1, reopened.searchCommits("test-repo", "persisted", 0, 10).getTotalHits());
+    }
+
+    @Test
+    void searchCommits_shouldRejectEmptyQuery() {
+        assertThrows(IllegalArgumentException.class,
+                () -> searchService.searchCommits("test-repo", "  ?! ", 0, 10));
+    }
+}
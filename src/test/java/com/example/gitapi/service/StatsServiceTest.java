@@ -0,0 +1,161 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.model.ActivityHistogram;
+import com.example.gitapi.model.AuthorStats;
+import com.example.gitapi.model.RefUpdateInfo;
+import com.example.gitapi.model.RepositoryStats;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StatsServiceTest {
+
+    private RepositoryService repositoryService;
+    private StatsService statsService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        repositoryService = new RepositoryService();
+        repositoryService.setBaseRepositoryPath(tempDir.toString());
+        statsService = new StatsService(repositoryService);
+    }
+
+    private void commitFile(String repoName, String file, String author, String email) throws IOException {
+        Files.writeString(tempDir.resolve(repoName).resolve(file), file);
+        repositoryService.addFiles(repoName, ".");
+        repositoryService.commit(repoName, "Add " + file, author, email);
+    }
+
+    @Test
+    void getStats_shouldCountExistingHistory() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "a.txt", "Alice", "alice@example.com");
+        commitFile(repoName, "b.txt", "Bob", "bob@example.com");
+        commitFile(repoName, "c.txt", "Alice", "alice@example.com");
+
+        RepositoryStats stats = statsService.getStats(repoName);
+
+        assertEquals(3, stats.getTotalCommits());
+        assertEquals(2, stats.getAuthorCount());
+        assertNotNull(stats.getFirstCommitDate());
+        assertNotNull(stats.getLastCommitDate());
+    }
+
+    @Test
+    void getStats_shouldExtendIndexOnNewCommits() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "a.txt", "Alice", "alice@example.com");
+        assertEquals(1, statsService.getStats(repoName).getTotalCommits());
+
+        commitFile(repoName, "b.txt", "Bob", "bob@example.com");
+        repositoryService.createBranch(repoName, "feature-branch");
+        repositoryService.checkout(repoName, "feature-branch");
+        commitFile(repoName, "c.txt", "Bob", "bob@example.com");
+        repositoryService.checkout(repoName, "main");
+        commitFile(repoName, "d.txt", "Alice", "alice@example.com");
+
+        assertEquals(4, statsService.getStats(repoName).getTotalCommits());
+
+        List<AuthorStats> authors = statsService.getAuthors(repoName, 10);
+        assertEquals(2, authors.size());
+        assertEquals(2, authors.get(0).getCommits());
+        assertEquals(2, authors.get(1).getCommits());
+    }
+
+    @Test
+    void getAuthors_shouldOrderByCommitCount() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "a.txt", "Alice", "alice@example.com");
+        commitFile(repoName, "b.txt", "Bob", "bob@example.com");
+        commitFile(repoName, "c.txt", "Bob", "bob@example.com");
+
+        List<AuthorStats> authors = statsService.getAuthors(repoName, 1);
+
+        assertEquals(1, authors.size());
+        assertEquals("Bob", authors.get(0).getName());
+        assertEquals(2, authors.get(0).getCommits());
+    }
+
+    @Test
+    void getAuthors_shouldKeepRankingAcrossUpdates() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        String[] sequence = {"Alice", "Bob", "Carol", "Bob", "Carol", "Bob"};
+        for (int i = 0; i < sequence.length; i++) {
+            commitFile(repoName, "f" + i + ".txt", sequence[i], sequence[i].toLowerCase() + "@example.com");
+        }
+        assertEquals(List.of("Bob", "Carol", "Alice"),
+                statsService.getAuthors(repoName, 10).stream().map(AuthorStats::getName).toList());
+
+        for (int i = 0; i < 3; i++) {
+            commitFile(repoName, "g" + i + ".txt", "Alice", "alice@example.com");
+        }
+
+        List<AuthorStats> authors = statsService.getAuthors(repoName, 10);
+        assertEquals(List.of("Alice", "Bob", "Carol"), authors.stream().map(AuthorStats::getName).toList());
+        assertEquals(List.of(4, 3, 2), authors.stream().map(AuthorStats::getCommits).toList());
+    }
+
+    @Test
+    void getActivity_shouldBucketCommitsByDayAndWeek() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "a.txt", "Alice", "alice@example.com");
+        commitFile(repoName, "b.txt", "Alice", "alice@example.com");
+
+        ActivityHistogram days = statsService.getActivity(repoName, "day");
+        ActivityHistogram weeks = statsService.getActivity(repoName, "week");
+
+        assertEquals(2, Arrays.stream(days.getCounts()).sum());
+        assertEquals(2, Arrays.stream(weeks.getCounts()).sum());
+        assertEquals(DayOfWeek.MONDAY, weeks.getStart().getDayOfWeek());
+        assertThrows(IllegalArgumentException.class, () -> statsService.getActivity(repoName, "month"));
+    }
+
+    @Test
+    void getStats_shouldReturnEmptyStatsForRepositoryWithoutCommits() {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+
+        RepositoryStats stats = statsService.getStats(repoName);
+
+        assertEquals(0, stats.getTotalCommits());
+        assertNull(stats.getFirstCommitDate());
+    }
+
+    @Test
+    void getStats_shouldDropCommitsOfDeletedBranch() throws IOException {
+        String repoName = "test-repo";
+        repositoryService.initRepository(repoName);
+        commitFile(repoName, "a.txt", "Alice", "alice@example.com");
+        repositoryService.createBranch(repoName, "feature");
+        repositoryService.checkout(repoName, "feature");
+        commitFile(repoName, "b.txt", "Bob", "bob@example.com");
+        repositoryService.checkout(repoName, "main");
+        assertEquals(2, statsService.getStats(repoName).getTotalCommits());
+
+        String featureTip = repositoryService.listBranches(repoName).stream()
+                .filter(b -> b.getName().equals("feature")).findFirst().orElseThrow().getLastCommitId();
+        repositoryService.batchUpdateRefs(repoName,
+                List.of(new RefUpdateInfo("refs/heads/feature", featureTip, null)), false);
+
+        RepositoryStats stats = statsService.getStats(repoName);
+        assertEquals(1, stats.getTotalCommits());
+        assertEquals(1, stats.getAuthorCount());
+    }
+}
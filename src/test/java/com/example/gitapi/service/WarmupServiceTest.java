@@ -0,0 +1,130 @@
+package com.example.gitapi.service;
+
+import com.example.gitapi.model.WarmupStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WarmupServiceTest {
+
+    private RepositoryService repositoryService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        repositoryService = new RepositoryService();
+        repositoryService.setBaseRepositoryPath(tempDir.toString());
+
+        for (String name : List.of("hot-repo", "warm-repo", "cold-repo")) {
+            repositoryService.initRepository(name);
+            Files.writeString(tempDir.resolve(name).resolve("test.txt"), name);
+            repositoryService.addFiles(name, ".");
+            repositoryService.commit(name, "Initial commit", "Test Author", "test@example.com");
+        }
+    }
+
+    private WarmupService newWarmupService(RepositoryService service, int top, long budgetMillis) {
+        return new WarmupService(service, top, 2, budgetMillis, 100, "");
+    }
+
+    private WarmupStatus awaitComplete(WarmupService warmupService) throws InterruptedException {
+        for (int i = 0; i < 500 && !"complete".equals(warmupService.getStatus().getState()); i++) {
+            Thread.sleep(10);
+        }
+        return warmupService.getStatus();
+    }
+
+    @Test
+    void stop_shouldSaveHottestRepositoriesFirst() throws IOException {
+        for (int i = 0; i < 3; i++) {
+            repositoryService.getRepository("hot-repo");
+        }
+        repositoryService.getRepository("warm-repo");
+
+        WarmupService warmupService = newWarmupService(repositoryService, 2, 1000);
+        warmupService.start();
+        warmupService.stop();
+
+        List<String> lines = Files.readAllLines(tempDir.resolve(".warmup-snapshot"));
+        assertEquals(3, lines.size());
+        assertTrue(lines.get(1).startsWith("hot-repo\t"));
+        assertTrue(lines.get(2).startsWith("warm-repo\t"));
+        assertEquals(40, lines.get(1).split("\t")[2].length());
+    }
+
+    @Test
+    void start_shouldWarmRepositoriesFromSnapshot() throws Exception {
+        WarmupService previous = newWarmupService(repositoryService, 10, 1000);
+        previous.start();
+        previous.stop();
+
+        RepositoryService restarted = new RepositoryService();
+        restarted.setBaseRepositoryPath(tempDir.toString());
+        WarmupService warmupService = newWarmupService(restarted, 10, 60_000);
+        warmupService.start();
+        WarmupStatus status = awaitComplete(warmupService);
+        warmupService.stop();
+
+        assertTrue(status.isReady());
+        assertEquals(3, status.getTotal());
+        assertEquals(3, status.getWarmed());
+        assertEquals(0, status.getFailed());
+    }
+
+    @Test
+    void start_shouldCountMissingRepositoriesAsFailed() throws Exception {
+        Files.writeString(tempDir.resolve(".warmup-snapshot"), "deleted-repo\t5\t\nhot-repo\t3\t\n");
+
+        WarmupService warmupService = newWarmupService(repositoryService, 10, 60_000);
+        warmupService.start();
+        WarmupStatus status = awaitComplete(warmupService);
+
+        assertEquals(1, status.getWarmed());
+        assertEquals(1, status.getFailed());
+    }
+
+    @Test
+    void start_shouldSkipMalformedSnapshotLines() throws Exception {
+        Files.writeString(tempDir.resolve(".warmup-snapshot"), "warm-repo\tlots\t\nhot-repo\t3\t\n");
+
+        WarmupService warmupService = newWarmupService(repositoryService, 10, 60_000);
+        warmupService.start();
+        WarmupStatus status = awaitComplete(warmupService);
+
+        assertEquals(1, status.getTotal());
+        assertEquals(1, status.getWarmed());
+    }
+
+    @Test
+    void stop_shouldNotSaveRepositoriesThatFailedToOpen() throws IOException {
+        repositoryService.getRepository("hot-repo");
+        assertThrows(RuntimeException.class, () -> repositoryService.getRepository("no-such-repo"));
+
+        WarmupService warmupService = newWarmupService(repositoryService, 10, 1000);
+        warmupService.start();
+        warmupService.stop();
+
+        List<String> lines = Files.readAllLines(tempDir.resolve(".warmup-snapshot"));
+        assertTrue(lines.stream().noneMatch(line -> line.startsWith("no-such-repo\t")));
+    }
+
+    @Test
+    void getStatus_shouldBeReadyWithoutSnapshot() {
+        WarmupService warmupService = newWarmupService(repositoryService, 10, 60_000);
+        warmupService.start();
+
+        WarmupStatus status = warmupService.getStatus();
+
+        assertTrue(status.isReady());
+        assertEquals(0, status.getTotal());
+    }
+}